@@ -0,0 +1,61 @@
+package com.apigateway.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalRateLimiterBenchmark {
+
+    private static final int CLIENTS = 1000;
+
+    private LocalRateLimiter rateLimiter;
+    private String[] clientIds;
+
+    @Setup
+    public void setUp() {
+        // Global limit sized for 50k rps so every request passes through all three buckets
+        rateLimiter = new LocalRateLimiter(null, 50_000, 100_000, 100_000, Duration.ofSeconds(60));
+
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+        config.setReplenishRate(100);
+        config.setBurstCapacity(200);
+        config.setRouteReplenishRate(50_000);
+        config.setRouteBurstCapacity(100_000);
+        rateLimiter.getConfig().put("order-service-orders", config);
+
+        clientIds = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIds[i] = "client-" + i;
+        }
+    }
+
+    @Benchmark
+    public RateLimiter.Response check() {
+        return rateLimiter.check("order-service-orders", clientIds[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RateLimiter.Response checkContended() {
+        return rateLimiter.check("order-service-orders", clientIds[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+}
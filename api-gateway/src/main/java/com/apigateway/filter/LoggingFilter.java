@@ -1,20 +1,32 @@
 package com.apigateway.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(LoggingFilter.class);
     private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    private static final String ROUTE_TIMER = "gateway.route.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public LoggingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -23,22 +35,47 @@ public class LoggingFilter implements GlobalFilter, Ordered {
         String path = request.getURI().getPath();
         String correlationId = request.getHeaders().getFirst(CORRELATION_ID_HEADER);
         long startTime = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         log.info("[{}] >>> {} {}", correlationId, method, path);
 
+        // doFinally also runs when the chain errors or the client cancels, so those requests are timed as well
         return chain.filter(exchange)
-                .then(Mono.fromRunnable(() -> {
+                .doFinally(signal -> {
                     long duration = System.currentTimeMillis() - startTime;
                     int status = 0;
                     if (exchange.getResponse().getStatusCode() != null) {
                         status = exchange.getResponse().getStatusCode().value();
                     }
-                    log.info("[{}] <<< {} {} -> {} ({}ms)", correlationId, method, path, status, duration);
-                }));
+                    String outcome = outcome(signal);
+                    log.info("[{}] <<< {} {} -> {} {} ({}ms)", correlationId, method, path, status, outcome, duration);
+                    sample.stop(routeTimer(exchange, method, status, outcome));
+                });
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> signal.name().toLowerCase();
+        };
+    }
+
+    private Timer routeTimer(ServerWebExchange exchange, String method, int status, String outcome) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return Timer.builder(ROUTE_TIMER)
+                .description("Requests proxied by the gateway, per route")
+                .tag("route", route != null ? route.getId() : "none")
+                .tag("method", method)
+                .tag("status", String.valueOf(status))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
     public int getOrder() {
-        return -1;
+        return -3;
     }
 }
@@ -0,0 +1,385 @@
+package com.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String REQUESTS_COUNTER = "gateway.cache.requests";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    // Per-request headers that must come from the current exchange rather than the cached one
+    private static final Set<String> UNCACHED_HEADERS = Set.of("x-correlation-id", "set-cookie", "date",
+            "content-length", "transfer-encoding", "connection");
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS,
+            HttpMethod.TRACE);
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String name() {
+        return "ResponseCache";
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "maxEntries");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "none";
+        Cache<String, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfter(new ResponseExpiry())
+                .build();
+        Map<String, CompletableFuture<Optional<CachedResponse>>> inFlight = new ConcurrentHashMap<>();
+
+        Counter hits = requestCounter(routeId, "hit");
+        Counter coalesced = requestCounter(routeId, "coalesced");
+        Counter misses = requestCounter(routeId, "miss");
+        Counter bypassed = requestCounter(routeId, "bypass");
+        Gauge.builder("gateway.cache.entries", cache, Cache::estimatedSize)
+                .description("Responses held in the gateway cache, per route")
+                .tag("route", routeId)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.hit.ratio", () -> {
+                    double served = hits.count() + coalesced.count();
+                    double total = served + misses.count();
+                    return total > 0 ? served / total : 0;
+                })
+                .description("Share of cacheable requests answered without calling the upstream service")
+                .tag("route", routeId)
+                .strongReference(true)
+                .register(meterRegistry);
+
+        // Runs just inside NettyWriteResponseFilter so the decorated response is the one the upstream body is written to
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!isCacheableRequest(request)) {
+                bypassed.increment();
+                if (!SAFE_METHODS.contains(request.getMethod())) {
+                    // A successful write makes every cached variant of its URI stale; evicting before the response
+                    // is committed means the client cannot read the old entry back after seeing the write succeed
+                    exchange.getResponse().beforeCommit(() -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && (status.is2xxSuccessful() || status.is3xxRedirection())) {
+                            evictPath(cache, inFlight, request.getURI().getRawPath());
+                        }
+                        return Mono.empty();
+                    });
+                }
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null && cached.matches(request)) {
+                hits.increment();
+                return writeCached(exchange, cached);
+            }
+
+            CompletableFuture<Optional<CachedResponse>> load = new CompletableFuture<>();
+            CompletableFuture<Optional<CachedResponse>> running = inFlight.putIfAbsent(key, load);
+            if (running != null) {
+                // Concurrent misses for the same key wait for the one upstream call already in flight
+                return Mono.fromFuture(running).flatMap(loaded -> {
+                    if (loaded.isPresent() && loaded.get().matches(request)) {
+                        coalesced.increment();
+                        return writeCached(exchange, loaded.get());
+                    }
+                    misses.increment();
+                    return chain.filter(exchange);
+                });
+            }
+
+            misses.increment();
+            ServerHttpResponseDecorator capturingResponse = new CapturingResponse(exchange.getResponse(), request,
+                    config, response -> {
+                        if (response != null) {
+                            // Skipped when a write to the same path evicted this load while it was in flight
+                            inFlight.computeIfPresent(key, (inFlightKey, current) -> {
+                                if (current == load) {
+                                    cache.put(key, response);
+                                }
+                                return current;
+                            });
+                        }
+                        load.complete(Optional.ofNullable(response));
+                    });
+            return chain.filter(exchange.mutate().response(capturingResponse).build())
+                    .doFinally(signal -> {
+                        load.complete(Optional.empty());
+                        inFlight.remove(key, load);
+                    });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Counter requestCounter(String routeId, String result) {
+        return Counter.builder(REQUESTS_COUNTER)
+                .description("Requests seen by the gateway response cache, per route and result")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Content negotiation headers are part of the key so a gzip or non-JSON variant is never replayed to a client
+    // that did not ask for it; other headers named in the upstream Vary are checked against the cached entry
+    private static String cacheKey(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "")
+                + '|' + Objects.toString(headers.getFirst(HttpHeaders.ACCEPT), "")
+                + '|' + Objects.toString(headers.getFirst(HttpHeaders.ACCEPT_ENCODING), "");
+    }
+
+    // In-flight loads go first, so a load finishing during the eviction either stores before the cache is swept or
+    // finds itself removed and does not store
+    private static void evictPath(Cache<String, CachedResponse> cache,
+                                  Map<String, CompletableFuture<Optional<CachedResponse>>> inFlight, String path) {
+        inFlight.keySet().removeIf(key -> isKeyForPath(key, path));
+        cache.asMap().keySet().removeIf(key -> isKeyForPath(key, path));
+    }
+
+    private static boolean isKeyForPath(String key, String path) {
+        return key.startsWith(path) && key.length() > path.length()
+                && (key.charAt(path.length()) == '?' || key.charAt(path.length()) == '|');
+    }
+
+    private boolean isCacheableRequest(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return false;
+        }
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        cached.headers().forEach((name, values) -> {
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                // The current exchange may already carry its own Vary entries, such as the CORS ones
+                List<String> vary = response.getHeaders().getVary();
+                values.stream().filter(value -> !vary.contains(value)).forEach(value ->
+                        response.getHeaders().add(HttpHeaders.VARY, value));
+            } else {
+                response.getHeaders().put(name, values);
+            }
+        });
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        if (ifNoneMatch.contains(cached.etag()) || ifNoneMatch.contains("*")) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+            return response.writeWith(Flux.empty());
+        }
+
+        response.setStatusCode(cached.status());
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    static Duration freshness(HttpHeaders headers, Duration defaultTtl) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtl;
+        }
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache") || cacheControl.contains("private")) {
+            return Duration.ZERO;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : defaultTtl;
+    }
+
+    private static class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+        private final Config config;
+        private final Consumer<CachedResponse> onCaptured;
+
+        CapturingResponse(ServerHttpResponse delegate, ServerHttpRequest request, Config config,
+                          Consumer<CachedResponse> onCaptured) {
+            super(delegate);
+            this.request = request;
+            this.config = config;
+            this.onCaptured = onCaptured;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Duration ttl = freshness(headers, config.getTtl());
+            long contentLength = headers.getContentLength();
+            MediaType contentType = headers.getContentType();
+            if (!HttpStatus.OK.equals(getStatusCode()) || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || ttl.isZero() || ttl.isNegative() || contentLength > config.getMaxEntryBytes()
+                    || contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                    || headers.getVary().contains("*")) {
+                onCaptured.accept(null);
+                return super.writeWith(body);
+            }
+
+            // Buffer at most maxEntryBytes; a larger body (e.g. one sent without Content-Length) is passed on as it
+            // arrives from the first buffer past the limit, without being cached
+            AtomicLong buffered = new AtomicLong();
+            AtomicBoolean overflowed = new AtomicBoolean();
+            Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body).bufferUntil(buffer -> {
+                if (!overflowed.get()) {
+                    overflowed.set(buffered.addAndGet(buffer.readableByteCount()) > config.getMaxEntryBytes());
+                }
+                return overflowed.get();
+            });
+
+            return chunks.switchOnFirst((first, all) -> {
+                if (!first.hasValue() || overflowed.get()) {
+                    if (overflowed.get()) {
+                        log.debug("Not caching response above the {} byte limit", config.getMaxEntryBytes());
+                    }
+                    onCaptured.accept(null);
+                    return super.writeWith(all.flatMapIterable(Function.identity()));
+                }
+
+                // Without overflow the first chunk is only emitted once the upstream body has completed
+                byte[] bytes = drain(first.get());
+                if (headers.getETag() == null) {
+                    headers.setETag("\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+                }
+                onCaptured.accept(new CachedResponse(getStatusCode(), cacheableHeaders(headers), bytes,
+                        headers.getETag(), varyValues(headers.getVary(), request), ttl));
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            }).then();
+        }
+
+        private static byte[] drain(List<DataBuffer> buffers) {
+            int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int length = buffer.readableByteCount();
+                buffer.read(bytes, offset, length);
+                offset += length;
+                DataBufferUtils.release(buffer);
+            }
+            return bytes;
+        }
+
+        private static Map<String, String> varyValues(List<String> vary, ServerHttpRequest request) {
+            Map<String, String> values = new HashMap<>();
+            vary.forEach(name -> values.put(name.toLowerCase(), request.getHeaders().getFirst(name)));
+            return values;
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streaming responses are passed through untouched
+            onCaptured.accept(null);
+            return super.writeAndFlushWith(body);
+        }
+
+        private static HttpHeaders cacheableHeaders(HttpHeaders headers) {
+            HttpHeaders copy = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                String lower = name.toLowerCase();
+                if (!UNCACHED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                    copy.put(name, List.copyOf(values));
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+    }
+
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                          Map<String, String> varyValues, Duration ttl) {
+
+        boolean matches(ServerHttpRequest request) {
+            return varyValues.entrySet().stream().allMatch(vary ->
+                    Objects.equals(vary.getValue(), request.getHeaders().getFirst(vary.getKey())));
+        }
+    }
+
+    private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                      long currentDuration) {
+            return response.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        // Freshness used when the upstream response carries no max-age
+        private Duration ttl = Duration.ofSeconds(30);
+        private int maxEntries = 10000;
+        private int maxEntryBytes = 512 * 1024;
+    }
+}
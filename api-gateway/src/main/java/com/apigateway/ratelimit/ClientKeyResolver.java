@@ -0,0 +1,56 @@
+package com.apigateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component("clientKeyResolver")
+public class ClientKeyResolver implements KeyResolver {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private final String apiKeyHeader;
+    // Issued API key -> bucket key; the bucket key is a digest so the keys themselves are not kept as map keys
+    private final Map<String, String> apiKeys;
+
+    public ClientKeyResolver(@Value("${app.rate-limit.api-key-header:X-Api-Key}") String apiKeyHeader,
+                             @Value("${app.rate-limit.api-keys:}") String[] apiKeys) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Arrays.stream(apiKeys)
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), key -> "api-key:"
+                        + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> "principal:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> resolveUnauthenticated(exchange)));
+    }
+
+    private String resolveUnauthenticated(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(apiKeyHeader);
+        if (apiKey != null && apiKeys.containsKey(apiKey)) {
+            return apiKeys.get(apiKey);
+        }
+        // Anything else the caller sends can be changed per request, so it is limited per remote address
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return remoteAddress.getAddress().getHostAddress();
+        }
+        return ANONYMOUS;
+    }
+}
@@ -0,0 +1,43 @@
+package com.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket expressed as the generic cell rate algorithm: the whole state is one theoretical arrival time,
+// so a request is admitted with a single compare-and-set and no lock
+final class GcraBucket {
+
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    GcraBucket(double tokensPerSecond, long burstCapacity, long now) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = emissionIntervalNanos * Math.max(1, burstCapacity);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    // Returns the outstanding debt in nanos when admitted, or minus the nanos to wait when rejected
+    long tryAcquire(long now, double share) {
+        long limit = (long) (capacityNanos * share);
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long debt = next - now;
+            if (debt > limit) {
+                return -(debt - limit);
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return debt;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryAcquire when a later check rejects the same request
+    void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    long remainingTokens(long debt) {
+        return Math.max(0, (capacityNanos - debt) / emissionIntervalNanos);
+    }
+}
@@ -0,0 +1,159 @@
+package com.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final Logger log = LoggerFactory.getLogger(LocalRateLimiter.class);
+
+    private final Config defaultConfig = new Config();
+    private final Map<String, GcraBucket> routeBuckets = new ConcurrentHashMap<>();
+    private final Cache<String, GcraBucket> clientBuckets;
+    private final GcraBucket globalBucket;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LocalRateLimiter(ConfigurationService configurationService,
+                            @Value("${app.rate-limit.global.replenish-rate:0}") double globalReplenishRate,
+                            @Value("${app.rate-limit.global.burst-capacity:0}") long globalBurstCapacity,
+                            @Value("${app.rate-limit.max-tracked-keys:100000}") int maxTrackedKeys,
+                            @Value("${app.rate-limit.idle-timeout:60s}") Duration idleTimeout) {
+        this(configurationService, globalReplenishRate, globalBurstCapacity, maxTrackedKeys, idleTimeout,
+                System::nanoTime);
+    }
+
+    LocalRateLimiter(ConfigurationService configurationService, double globalReplenishRate,
+                     long globalBurstCapacity, int maxTrackedKeys, Duration idleTimeout, LongSupplier clock) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.globalBucket = globalReplenishRate > 0
+                ? new GcraBucket(globalReplenishRate, globalBurstCapacity, clock.getAsLong())
+                : null;
+        // A bucket left alone longer than it takes to refill is indistinguishable from a new one, so expiring it
+        // loses nothing as long as idle-timeout exceeds burst-capacity / replenish-rate
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(idleTimeout)
+                .ticker(clock::getAsLong)
+                .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return Mono.just(check(routeId, id));
+    }
+
+    Response check(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = clock.getAsLong();
+
+        GcraBucket clientBucket = clientBucket(routeId + '|' + id, config, now);
+        long clientDebt = clientBucket.tryAcquire(now, 1.0);
+        if (clientDebt < 0) {
+            return rejected(config, -clientDebt);
+        }
+
+        GcraBucket routeBucket = null;
+        if (config.getRouteReplenishRate() > 0) {
+            routeBucket = routeBuckets.computeIfAbsent(routeId,
+                    k -> new GcraBucket(config.getRouteReplenishRate(), config.getRouteBurstCapacity(), now));
+            long routeDebt = routeBucket.tryAcquire(now, 1.0);
+            if (routeDebt < 0) {
+                clientBucket.refund();
+                return rejected(config, -routeDebt);
+            }
+        }
+
+        if (globalBucket != null) {
+            // Lower tiers may only use part of the shared burst, so they are shed before higher tiers as load rises
+            long globalDebt = globalBucket.tryAcquire(now, config.getPriority().burstShare);
+            if (globalDebt < 0) {
+                clientBucket.refund();
+                if (routeBucket != null) {
+                    routeBucket.refund();
+                }
+                log.debug("Shedding {} priority request on route {}", config.getPriority(), routeId);
+                return rejected(config, -globalDebt);
+            }
+        }
+
+        Map<String, String> headers = baseHeaders(config);
+        headers.put(REMAINING_HEADER, String.valueOf(clientBucket.remainingTokens(clientDebt)));
+        return new Response(true, headers);
+    }
+
+    private GcraBucket clientBucket(String key, Config config, long now) {
+        return clientBuckets.get(key, k -> new GcraBucket(config.getReplenishRate(), config.getBurstCapacity(), now));
+    }
+
+    private Response rejected(Config config, long waitNanos) {
+        Map<String, String> headers = baseHeaders(config);
+        headers.put(REMAINING_HEADER, "0");
+        long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+        return new Response(false, headers);
+    }
+
+    private Map<String, String> baseHeaders(Config config) {
+        Map<String, String> headers = new HashMap<>(4);
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        return headers;
+    }
+
+    long trackedClients() {
+        clientBuckets.cleanUp();
+        return clientBuckets.estimatedSize();
+    }
+
+    public enum Priority {
+        LOW(0.5),
+        NORMAL(0.8),
+        HIGH(1.0);
+
+        private final double burstShare;
+
+        Priority(double burstShare) {
+            this.burstShare = burstShare;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        // Per client (see ClientKeyResolver) on the route
+        private double replenishRate = 100;
+        private long burstCapacity = 200;
+        // Shared by every client on the route; 0 disables the route-wide limit
+        private double routeReplenishRate = 0;
+        private long routeBurstCapacity = 0;
+        private Priority priority = Priority.NORMAL;
+    }
+}
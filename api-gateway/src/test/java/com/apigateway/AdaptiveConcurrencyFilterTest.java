@@ -0,0 +1,89 @@
+package com.apigateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("adaptive-concurrency")
+class AdaptiveConcurrencyFilterTest {
+
+    private static MockWebServer orderService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        orderService = new MockWebServer();
+        orderService.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        orderService.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.service.base-url", () -> "http://localhost:9999");
+        registry.add("order.service.base-url", () -> "http://localhost:" + orderService.getPort());
+    }
+
+    @Test
+    void shouldRejectRequestsOverTheLimitWhileUpstreamIsSlow() throws Exception {
+        orderService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"orderId\":\"ORD-1\"}")
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+        orderService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"orderId\":\"ORD-2\"}"));
+
+        CompletableFuture<Void> slowRequest = CompletableFuture.runAsync(() -> webTestClient.mutate()
+                .responseTimeout(Duration.ofSeconds(5))
+                .build()
+                .get()
+                .uri("/api/v1/orders/ORD-1")
+                .exchange()
+                .expectStatus().isOk());
+        assertNotNull(orderService.takeRequest(5, TimeUnit.SECONDS));
+
+        webTestClient.get()
+                .uri("/api/v1/orders/ORD-2")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "1");
+
+        slowRequest.get(5, TimeUnit.SECONDS);
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.rejected")
+                .tag("route", "order-service-orders").counter().count());
+
+        webTestClient.get()
+                .uri("/api/v1/orders/ORD-2")
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,120 @@
+package com.apigateway;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("rate-limit")
+class RateLimitTest {
+
+    private static MockWebServer productService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        productService = new MockWebServer();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("[]");
+            }
+        });
+        productService.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        productService.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.service.base-url", () -> "http://localhost:" + productService.getPort());
+        registry.add("order.service.base-url", () -> "http://localhost:9998");
+    }
+
+    @Test
+    void shouldReturn429WithRetryAfterOnceClientExceedsBurst() {
+        int requestsBefore = productService.getRequestCount();
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/v1/products")
+                    .header("X-Api-Key", "burst-key")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().exists("X-RateLimit-Remaining");
+        }
+
+        webTestClient.get()
+                .uri("/api/v1/products")
+                .header("X-Api-Key", "burst-key")
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals("Retry-After", "1")
+                .expectHeader().valueEquals("X-RateLimit-Remaining", "0");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldLimitClientsSeparately() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/v1/products")
+                    .header("X-Api-Key", "noisy-key")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        webTestClient.get()
+                .uri("/api/v1/products")
+                .header("X-Api-Key", "noisy-key")
+                .exchange()
+                .expectStatus().isEqualTo(429);
+
+        webTestClient.get()
+                .uri("/api/v1/products")
+                .header("X-Api-Key", "quiet-key")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void shouldNotGrantFreshBucketForUnknownKeys() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/v1/products")
+                    .header("X-Api-Key", "made-up-" + i)
+                    .header("X-Client-Id", "rotating-" + i)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        webTestClient.get()
+                .uri("/api/v1/products")
+                .header("X-Api-Key", "made-up-2")
+                .header("X-Client-Id", "rotating-2")
+                .exchange()
+                .expectStatus().isEqualTo(429);
+    }
+}
@@ -0,0 +1,289 @@
+package com.apigateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("response-cache")
+class ResponseCacheFilterTest {
+
+    private static MockWebServer productService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private int requestsBefore;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        productService = new MockWebServer();
+        productService.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        productService.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("product.service.base-url", () -> "http://localhost:" + productService.getPort());
+        registry.add("order.service.base-url", () -> "http://localhost:9998");
+    }
+
+    @BeforeEach
+    void recordRequestCount() {
+        requestsBefore = productService.getRequestCount();
+    }
+
+    private MockResponse catalogResponse(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+
+    @Test
+    void shouldServeRepeatedGetFromCache() {
+        productService.enqueue(catalogResponse("{\"productId\":\"p-1\"}"));
+
+        webTestClient.get()
+                .uri("/api/v1/products/p-1")
+                .header("X-Correlation-Id", "first")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "MISS")
+                .expectHeader().exists("ETag");
+
+        webTestClient.get()
+                .uri("/api/v1/products/p-1")
+                .header("X-Correlation-Id", "second")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectHeader().valueEquals("X-Correlation-Id", "second")
+                .expectHeader().contentType("application/json")
+                .expectBody(String.class).isEqualTo("{\"productId\":\"p-1\"}");
+
+        assertEquals(requestsBefore + 1, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldKeyCacheByQueryString() {
+        productService.enqueue(catalogResponse("[\"page-0\"]"));
+        productService.enqueue(catalogResponse("[\"page-1\"]"));
+
+        webTestClient.get().uri("/api/v1/categories?page=0").exchange()
+                .expectBody(String.class).isEqualTo("[\"page-0\"]");
+        webTestClient.get().uri("/api/v1/categories?page=1").exchange()
+                .expectBody(String.class).isEqualTo("[\"page-1\"]");
+        webTestClient.get().uri("/api/v1/categories?page=0").exchange()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectBody(String.class).isEqualTo("[\"page-0\"]");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldAnswerMatchingIfNoneMatchWith304() {
+        productService.enqueue(catalogResponse("{\"productId\":\"p-2\"}").setHeader("ETag", "\"v7\""));
+
+        webTestClient.get().uri("/api/v1/products/p-2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"v7\"");
+
+        webTestClient.get()
+                .uri("/api/v1/products/p-2")
+                .header("If-None-Match", "\"v7\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        assertEquals(requestsBefore + 1, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldNotCacheResponsesMarkedNoStore() {
+        productService.enqueue(catalogResponse("{\"v\":1}").setHeader("Cache-Control", "no-store"));
+        productService.enqueue(catalogResponse("{\"v\":2}").setHeader("Cache-Control", "no-store"));
+
+        webTestClient.get().uri("/api/v1/products/p-3").exchange()
+                .expectBody(String.class).isEqualTo("{\"v\":1}");
+        webTestClient.get().uri("/api/v1/products/p-3").exchange()
+                .expectBody(String.class).isEqualTo("{\"v\":2}");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldBypassCacheWhenClientSendsNoCache() {
+        productService.enqueue(catalogResponse("{\"v\":1}"));
+        productService.enqueue(catalogResponse("{\"v\":2}"));
+
+        webTestClient.get().uri("/api/v1/products/p-4").exchange()
+                .expectBody(String.class).isEqualTo("{\"v\":1}");
+        webTestClient.get().uri("/api/v1/products/p-4").header("Cache-Control", "no-cache").exchange()
+                .expectBody(String.class).isEqualTo("{\"v\":2}");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldEvictCachedPathAfterSuccessfulWrite() {
+        productService.enqueue(catalogResponse("{\"name\":\"old\"}"));
+        productService.enqueue(new MockResponse().setResponseCode(409));
+        productService.enqueue(catalogResponse("{\"name\":\"new\"}"));
+        productService.enqueue(catalogResponse("{\"name\":\"new\"}"));
+
+        webTestClient.get().uri("/api/v1/products/p-9").exchange()
+                .expectHeader().valueEquals("X-Cache", "MISS");
+        webTestClient.put().uri("/api/v1/products/p-9").bodyValue("{\"name\":\"new\"}").exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.get().uri("/api/v1/products/p-9").exchange()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectBody(String.class).isEqualTo("{\"name\":\"old\"}");
+
+        webTestClient.put().uri("/api/v1/products/p-9").bodyValue("{\"name\":\"new\"}").exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/products/p-9").exchange()
+                .expectHeader().valueEquals("X-Cache", "MISS")
+                .expectBody(String.class).isEqualTo("{\"name\":\"new\"}");
+
+        assertEquals(requestsBefore + 4, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldBoundEntriesToMaxEntries() {
+        productService.enqueue(catalogResponse("{\"id\":\"a\"}"));
+        productService.enqueue(catalogResponse("{\"id\":\"b\"}"));
+        productService.enqueue(catalogResponse("{\"id\":\"c\"}"));
+
+        webTestClient.get().uri("/api/v1/products/bound-a").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/products/bound-b").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/v1/products/bound-c").exchange().expectStatus().isOk();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("gateway.cache.entries")
+                .tag("route", "product-service-products").gauge().value() <= 2);
+        assertEquals(requestsBefore + 3, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldStreamBodyWithoutContentLengthPastMaxEntryBytesUncached() {
+        String large = "[" + "\"x\",".repeat(2000) + "\"x\"]";
+        productService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setChunkedBody(large, 512));
+        productService.enqueue(catalogResponse("[]"));
+
+        webTestClient.get().uri("/api/v1/products/large").exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Cache")
+                .expectBody(String.class).isEqualTo(large);
+        webTestClient.get().uri("/api/v1/products/large").exchange()
+                .expectBody(String.class).isEqualTo("[]");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldNotCacheNonJsonResponses() {
+        productService.enqueue(catalogResponse("{\"id\":1}\n").setHeader("Content-Type", "application/x-ndjson"));
+        productService.enqueue(catalogResponse("{\"id\":2}\n").setHeader("Content-Type", "application/x-ndjson"));
+
+        webTestClient.get().uri("/api/v1/products/export").exchange()
+                .expectBody(String.class).isEqualTo("{\"id\":1}\n");
+        webTestClient.get().uri("/api/v1/products/export").exchange()
+                .expectBody(String.class).isEqualTo("{\"id\":2}\n");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldKeyCacheByAcceptEncoding() {
+        productService.enqueue(catalogResponse("{\"encoding\":\"gzip\"}").setHeader("Vary", "Accept-Encoding"));
+        productService.enqueue(catalogResponse("{\"encoding\":\"identity\"}").setHeader("Vary", "Accept-Encoding"));
+
+        webTestClient.get().uri("/api/v1/products/p-5").header("Accept-Encoding", "gzip").exchange()
+                .expectBody(String.class).isEqualTo("{\"encoding\":\"gzip\"}");
+        webTestClient.get().uri("/api/v1/products/p-5").header("Accept-Encoding", "identity").exchange()
+                .expectHeader().valueEquals("X-Cache", "MISS")
+                .expectBody(String.class).isEqualTo("{\"encoding\":\"identity\"}");
+        webTestClient.get().uri("/api/v1/products/p-5").header("Accept-Encoding", "identity").exchange()
+                .expectHeader().valueEquals("X-Cache", "HIT")
+                .expectHeader().values("Vary", vary -> assertTrue(vary.contains("Accept-Encoding")));
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldNotReplayEntryToRequestWithDifferentVaryHeader() {
+        productService.enqueue(catalogResponse("{\"lang\":\"en\"}").setHeader("Vary", "Accept-Language"));
+        productService.enqueue(catalogResponse("{\"lang\":\"de\"}").setHeader("Vary", "Accept-Language"));
+
+        webTestClient.get().uri("/api/v1/products/p-6").header("Accept-Language", "en").exchange()
+                .expectBody(String.class).isEqualTo("{\"lang\":\"en\"}");
+        webTestClient.get().uri("/api/v1/products/p-6").header("Accept-Language", "de").exchange()
+                .expectBody(String.class).isEqualTo("{\"lang\":\"de\"}");
+
+        assertEquals(requestsBefore + 2, productService.getRequestCount());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMissesAndRecordHitRatio() {
+        productService.enqueue(catalogResponse("{\"productId\":\"hot\"}").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+        double hitsBefore = counter("coalesced") + counter("hit");
+
+        List<String> bodies = Flux.range(0, 10)
+                .flatMap(i -> webTestClient.mutate().responseTimeout(Duration.ofSeconds(5)).build()
+                        .get().uri("/api/v1/products/hot")
+                        .exchange()
+                        .returnResult(String.class)
+                        .getResponseBody()
+                        .single(), 10)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(bodies);
+        assertEquals(10, bodies.size());
+        bodies.forEach(body -> assertEquals("{\"productId\":\"hot\"}", body));
+        assertEquals(requestsBefore + 1, productService.getRequestCount());
+        assertEquals(hitsBefore + 9, counter("coalesced") + counter("hit"));
+        assertNotEquals(0.0, meterRegistry.get("gateway.cache.hit.ratio")
+                .tag("route", "product-service-products").gauge().value());
+    }
+
+    private double counter(String result) {
+        Counter counter = meterRegistry.find("gateway.cache.requests")
+                .tags("route", "product-service-products", "result", result)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -1,8 +1,11 @@
 package com.apigateway;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.AfterAll;
@@ -31,6 +34,9 @@ class RouteConfigTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeAll
     static void setUp() throws IOException {
         productService = new MockWebServer();
@@ -162,4 +168,53 @@ class RouteConfigTest {
                 .expectStatus().isOk()
                 .expectHeader().valueEquals("X-Correlation-Id", existingId);
     }
+
+    @Test
+    void test7_shouldRecordPerRouteTimer() throws InterruptedException {
+        long before = routeRequestCount();
+        orderService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{}"));
+
+        webTestClient.get()
+                .uri("/api/v1/orders/order-1")
+                .exchange()
+                .expectStatus().isOk();
+
+        // The timer is stopped once the exchange completes, which can trail the client seeing the response
+        long deadline = System.currentTimeMillis() + 5000;
+        while (routeRequestCount() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(before + 1, routeRequestCount());
+    }
+
+    @Test
+    void test8_shouldRecordPerRouteTimerWhenDownstreamFails() throws InterruptedException {
+        long before = routeRequestCount("outcome", "error");
+        orderService.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+
+        webTestClient.get()
+                .uri("/api/v1/orders/order-1")
+                .exchange()
+                .expectStatus().is5xxServerError();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (routeRequestCount("outcome", "error") == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(before + 1, routeRequestCount("outcome", "error"));
+    }
+
+    private long routeRequestCount() {
+        return routeRequestCount("status", "200");
+    }
+
+    private long routeRequestCount(String key, String value) {
+        Timer timer = meterRegistry.find("gateway.route.requests")
+                .tags("route", "order-service-orders", "method", "GET", key, value)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
 }
@@ -0,0 +1,142 @@
+package com.apigateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private LocalRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new LocalRateLimiter(null, 0, 0, 100, Duration.ofSeconds(10), clock::get);
+    }
+
+    private LocalRateLimiter.Config config(double replenishRate, long burstCapacity) {
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    void check_shouldAllowBurstThenRejectWithRetryAfter() {
+        rateLimiter.getConfig().put("orders", config(1, 3));
+
+        for (int i = 0; i < 3; i++) {
+            RateLimiter.Response response = rateLimiter.check("orders", "client-1");
+            assertTrue(response.isAllowed());
+            assertEquals(String.valueOf(2 - i), response.getHeaders().get(LocalRateLimiter.REMAINING_HEADER));
+            assertNull(response.getHeaders().get(LocalRateLimiter.RETRY_AFTER_HEADER));
+        }
+
+        RateLimiter.Response rejected = rateLimiter.check("orders", "client-1");
+        assertFalse(rejected.isAllowed());
+        assertEquals("0", rejected.getHeaders().get(LocalRateLimiter.REMAINING_HEADER));
+        assertEquals("1", rejected.getHeaders().get(LocalRateLimiter.RETRY_AFTER_HEADER));
+        assertEquals("3", rejected.getHeaders().get(LocalRateLimiter.BURST_CAPACITY_HEADER));
+    }
+
+    @Test
+    void check_shouldRefillAtReplenishRate() {
+        rateLimiter.getConfig().put("orders", config(10, 1));
+
+        assertTrue(rateLimiter.check("orders", "client-1").isAllowed());
+        assertFalse(rateLimiter.check("orders", "client-1").isAllowed());
+
+        advance(50);
+        assertFalse(rateLimiter.check("orders", "client-1").isAllowed());
+
+        advance(50);
+        assertTrue(rateLimiter.check("orders", "client-1").isAllowed());
+    }
+
+    @Test
+    void check_shouldLimitEachClientIndependently() {
+        rateLimiter.getConfig().put("orders", config(1, 1));
+
+        assertTrue(rateLimiter.check("orders", "client-1").isAllowed());
+        assertFalse(rateLimiter.check("orders", "client-1").isAllowed());
+        assertTrue(rateLimiter.check("orders", "client-2").isAllowed());
+        assertTrue(rateLimiter.check("payments", "client-1").isAllowed());
+    }
+
+    @Test
+    void check_shouldApplyRouteLimitAcrossClientsWithoutChargingRejectedClients() {
+        LocalRateLimiter.Config config = config(10, 10);
+        config.setRouteReplenishRate(1);
+        config.setRouteBurstCapacity(2);
+        rateLimiter.getConfig().put("orders", config);
+
+        assertTrue(rateLimiter.check("orders", "client-1").isAllowed());
+        assertTrue(rateLimiter.check("orders", "client-2").isAllowed());
+        assertFalse(rateLimiter.check("orders", "client-3").isAllowed());
+
+        advance(1000);
+        RateLimiter.Response response = rateLimiter.check("orders", "client-3");
+        assertTrue(response.isAllowed());
+        assertEquals("9", response.getHeaders().get(LocalRateLimiter.REMAINING_HEADER));
+    }
+
+    @Test
+    void check_shouldShedLowPriorityTrafficBeforeHighPriority() {
+        rateLimiter = new LocalRateLimiter(null, 10, 10, 100, Duration.ofSeconds(10), clock::get);
+        LocalRateLimiter.Config seed = config(1000, 1000);
+        seed.setPriority(LocalRateLimiter.Priority.LOW);
+        LocalRateLimiter.Config createOrder = config(1000, 1000);
+        createOrder.setPriority(LocalRateLimiter.Priority.HIGH);
+        rateLimiter.getConfig().put("admin-seed", seed);
+        rateLimiter.getConfig().put("create-order", createOrder);
+
+        int seedAllowed = 0;
+        while (rateLimiter.check("admin-seed", "admin").isAllowed()) {
+            seedAllowed++;
+        }
+        assertEquals(5, seedAllowed);
+
+        int ordersAllowed = 0;
+        while (rateLimiter.check("create-order", "client-1").isAllowed()) {
+            ordersAllowed++;
+        }
+        assertEquals(5, ordersAllowed);
+    }
+
+    @Test
+    void check_shouldBoundTrackedClientsWhenKeysRotate() {
+        rateLimiter.getConfig().put("orders", config(10, 1));
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.check("orders", "client-" + i);
+        }
+
+        assertTrue(rateLimiter.trackedClients() <= 100);
+    }
+
+    @Test
+    void check_shouldExpireIdleClients() {
+        rateLimiter.getConfig().put("orders", config(10, 1));
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.check("orders", "client-" + i);
+        }
+        assertEquals(10, rateLimiter.trackedClients());
+
+        advance(10_000);
+
+        assertEquals(0, rateLimiter.trackedClients());
+    }
+}
@@ -0,0 +1,99 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.orderservice.dto.response.OrderItemResponse;
+import com.orderservice.dto.response.OrderResponse;
+import com.orderservice.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"3", "50"})
+    private int itemCount;
+
+    private ObjectMapper objectMapper;
+    private List<OrderItem> items;
+    private OrderResponse response;
+
+    @Setup
+    public void setUp() {
+        // Same Jackson setup Boot applies to the MVC message converters
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Random random = new Random(42);
+        items = new ArrayList<>(itemCount);
+        List<OrderItemResponse> itemResponses = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            BigDecimal unitPrice = BigDecimal.valueOf(100 + random.nextInt(99_900), 2);
+            int quantity = 1 + random.nextInt(5);
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            String productId = UUID.randomUUID().toString();
+            items.add(OrderItem.builder()
+                    .productId(productId)
+                    .sku("SKU-" + i)
+                    .productName("Product " + i)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .lineTotal(lineTotal)
+                    .build());
+            itemResponses.add(OrderItemResponse.builder()
+                    .productId(productId)
+                    .sku("SKU-" + i)
+                    .productName("Product " + i)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .lineTotal(lineTotal)
+                    .build());
+        }
+
+        response = OrderResponse.builder()
+                .orderId(UUID.randomUUID().toString())
+                .customerId("CUST-1001")
+                .status("CREATED")
+                .items(itemResponses)
+                .orderTotal(OrderService.calculateOrderTotal(items))
+                .currency("USD")
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    @Benchmark
+    public BigDecimal calculateOrderTotal() {
+        return OrderService.calculateOrderTotal(items);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,71 @@
+package com.orderservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderservice.client.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class ProductLookupCache implements MeterBinder {
+
+    private final AsyncCache<String, ProductResponse> products;
+    private final boolean coalesceOnly;
+
+    // Concurrent lookups for the same product share one in-flight request, and its answer is reused until the ttl
+    // passes; the ttl bounds how stale a price or active flag may be, and zero keeps only the request sharing
+    public ProductLookupCache(@Value("${app.cache.product.max-size:10000}") long maxSize,
+                              @Value("${app.cache.product.ttl:1s}") Duration ttl) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.coalesceOnly = ttl.isZero();
+    }
+
+    public Mono<ProductResponse> get(String productId, Function<String, Mono<ProductResponse>> loader) {
+        return Mono.deferContextual(context -> Mono.fromFuture(products.get(productId, (id, executor) ->
+                loader.apply(id).contextWrite(context).toFuture()), true))
+                .doOnEach(signal -> evictFinished(List.of(productId), signal.isOnError(), signal.isOnComplete()));
+    }
+
+    // Only the ids that are neither cached nor already being fetched are passed to the loader; ids it leaves out
+    // of its result are treated as not found and are not cached
+    public Mono<Map<String, ProductResponse>> getAll(Collection<String> productIds,
+                                                     Function<List<String>, Mono<Map<String, ProductResponse>>> loader) {
+        return Mono.deferContextual(context -> Mono.fromFuture(products.getAll(productIds, (missingIds, executor) ->
+                loader.apply(List.copyOf(missingIds)).contextWrite(context).toFuture()), true))
+                .doOnEach(signal -> evictFinished(productIds, signal.isOnError(), signal.isOnComplete()));
+    }
+
+    // The cache drops failed entries from a completion callback that can run after waiting callers have resumed,
+    // so a caller retrying straight away could be handed the same failure; finished entries are removed here first
+    private void evictFinished(Collection<String> productIds, boolean failed, boolean completed) {
+        if (!failed && !(completed && coalesceOnly)) {
+            return;
+        }
+        for (String productId : productIds) {
+            CompletableFuture<ProductResponse> entry = products.getIfPresent(productId);
+            if (entry != null && (entry.isCompletedExceptionally() || (coalesceOnly && entry.isDone()))) {
+                products.asMap().remove(productId, entry);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, products, "products.lookup");
+    }
+}
@@ -11,13 +11,10 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ProductPageResponse {
+public class ProductCursorPageResponse {
 
     private List<ProductResponse> content;
-    private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
-    private boolean first;
-    private boolean last;
+    private String nextCursor;
+    private boolean hasNext;
 }
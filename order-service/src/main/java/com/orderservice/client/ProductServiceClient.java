@@ -1,42 +1,78 @@
 package com.orderservice.client;
 
+import com.orderservice.cache.ProductLookupCache;
 import com.orderservice.exception.ErrorCode;
 import com.orderservice.exception.ProductServiceException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class ProductServiceClient {
 
+    private static final String REQUEST_TIMER = "product.client.requests";
+    private static final String RETRY_COUNTER = "product.client.retries";
+    static final String RESILIENCE_INSTANCE = "productService";
+
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final ProductLookupCache productLookupCache;
+    private final RequestHedger productHedger;
+    private final RequestHedger productBatchHedger;
 
-    public ProductServiceClient(WebClient productServiceWebClient) {
+    public ProductServiceClient(WebClient productServiceWebClient, MeterRegistry meterRegistry,
+                                CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                                ProductLookupCache productLookupCache,
+                                @Value("${product.service.hedging.enabled:false}") boolean hedgingEnabled,
+                                @Value("${product.service.hedging.percentile:0.95}") double hedgingPercentile,
+                                @Value("${product.service.hedging.max-extra-load:0.05}") double hedgingMaxExtraLoad,
+                                @Value("${product.service.hedging.min-delay:5ms}") Duration hedgingMinDelay) {
         this.webClient = productServiceWebClient;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.productLookupCache = productLookupCache;
+        this.productHedger = new RequestHedger("getProduct", meterRegistry, hedgingEnabled, hedgingPercentile,
+                hedgingMaxExtraLoad, hedgingMinDelay);
+        this.productBatchHedger = new RequestHedger("getProductsBatch", meterRegistry, hedgingEnabled,
+                hedgingPercentile, hedgingMaxExtraLoad, hedgingMinDelay);
     }
 
     public ProductResponse getProduct(String productId) {
-        log.info("Fetching product from product-service: {}", productId);
         try {
-            return webClient.get()
-                    .uri("/api/v1/products/{productId}", productId)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, response ->
-                            response.bodyToMono(ProductServiceErrorResponse.class)
-                                    .map(err -> mapClientError(err, productId, response.statusCode())))
-                    .bodyToMono(ProductResponse.class)
-                    .retryWhen(Retry.backoff(2, Duration.ofMillis(500))
-                            .filter(this::isTransientError))
-                    .block();
+            return productLookupCache.get(productId, this::fetchProduct).block();
         } catch (ProductServiceException e) {
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw rejected(e);
         } catch (WebClientRequestException e) {
             log.error("Product service connection error for product {}: {}", productId, e.getMessage());
             throw new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
@@ -51,6 +87,47 @@ public class ProductServiceClient {
         }
     }
 
+    public Mono<ProductBatchResponse> getProductsBatch(List<String> productIds) {
+        return productLookupCache.getAll(productIds, this::fetchProductsBatch)
+                .map(found -> ProductBatchResponse.builder()
+                        .products(productIds.stream().map(found::get).filter(Objects::nonNull).toList())
+                        .missingIds(productIds.stream().filter(id -> !found.containsKey(id)).toList())
+                        .build());
+    }
+
+    private Mono<ProductResponse> fetchProduct(String productId) {
+        log.info("Fetching product from product-service: {}", productId);
+        return webClient.get()
+                .uri("/api/v1/products/{productId}", productId)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        response.bodyToMono(ProductServiceErrorResponse.class)
+                                .map(err -> mapClientError(err, productId, response.statusCode())))
+                .bodyToMono(ProductResponse.class)
+                .transform(call -> resilient("getProduct", call, productHedger))
+                .transform(call -> timed("getProduct", call));
+    }
+
+    private Mono<Map<String, ProductResponse>> fetchProductsBatch(List<String> productIds) {
+        log.info("Fetching {} products from product-service batch", productIds.size());
+        return webClient.post()
+                .uri("/api/v1/products/batch")
+                .bodyValue(ProductBatchRequest.builder().ids(productIds).build())
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        response.bodyToMono(ProductServiceErrorResponse.class)
+                                .map(err -> new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
+                                        "Product service rejected batch lookup: "
+                                                + (err != null ? err.getMessage() : response.statusCode()))))
+                .bodyToMono(ProductBatchResponse.class)
+                .transform(call -> resilient("getProductsBatch", call, productBatchHedger))
+                .onErrorMap(e -> mapBatchFailure(e, "fetching product batch"))
+                .transform(call -> timed("getProductsBatch", call))
+                .map(response -> response.getProducts() == null ? Map.<String, ProductResponse>of()
+                        : response.getProducts().stream().collect(Collectors.toMap(
+                                ProductResponse::getProductId, Function.identity(), (first, second) -> first)));
+    }
+
     public InventoryResponse reserveInventory(String productId, int qty) {
         log.info("Reserving {} units for product {} via product-service", qty, productId);
         try {
@@ -64,11 +141,13 @@ public class ProductServiceClient {
                             response.bodyToMono(ProductServiceErrorResponse.class)
                                     .map(err -> mapInventoryError(err, productId)))
                     .bodyToMono(InventoryResponse.class)
-                    .retryWhen(Retry.backoff(2, Duration.ofMillis(500))
-                            .filter(this::isTransientError))
+                    .transform(call -> resilient("reserveInventory", call))
+                    .transform(call -> timed("reserveInventory", call))
                     .block();
         } catch (ProductServiceException e) {
             throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw rejected(e);
         } catch (WebClientRequestException e) {
             log.error("Product service connection error reserving inventory for {}: {}", productId, e.getMessage());
             throw new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
@@ -83,6 +162,21 @@ public class ProductServiceClient {
         }
     }
 
+    public Mono<List<InventoryResponse>> reserveInventoryBatch(List<ReserveItemRequest> items) {
+        log.info("Reserving inventory for {} items via product-service batch", items.size());
+        return webClient.post()
+                .uri("/api/v1/inventory/reserve-batch")
+                .bodyValue(ReserveBatchRequest.builder().items(items).build())
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        response.bodyToMono(ProductServiceErrorResponse.class)
+                                .map(this::mapBatchInventoryError))
+                .bodyToMono(new ParameterizedTypeReference<List<InventoryResponse>>() {})
+                .transform(call -> resilient("reserveInventoryBatch", call))
+                .onErrorMap(e -> mapBatchFailure(e, "reserving inventory batch"))
+                .transform(call -> timed("reserveInventoryBatch", call));
+    }
+
     public void releaseInventory(String productId, int qty) {
         log.info("Releasing {} units for product {} via product-service", qty, productId);
         try {
@@ -96,8 +190,8 @@ public class ProductServiceClient {
                             response.bodyToMono(ProductServiceErrorResponse.class)
                                     .map(err -> mapInventoryError(err, productId)))
                     .bodyToMono(InventoryResponse.class)
-                    .retryWhen(Retry.backoff(2, Duration.ofMillis(500))
-                            .filter(this::isTransientError))
+                    .transform(call -> resilient("releaseInventory", call))
+                    .transform(call -> timed("releaseInventory", call))
                     .block();
         } catch (ProductServiceException e) {
             log.warn("Failed to release inventory for product {}: {}", productId, e.getMessage());
@@ -106,6 +200,67 @@ public class ProductServiceClient {
         }
     }
 
+    // The breaker sees every attempt, so retries stop as soon as it opens; the bulkhead holds one permit per call
+    private <T> Mono<T> resilient(String operation, Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .retryWhen(retrySpec(operation))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    // Reads are idempotent, so a slow attempt may be raced by a hedged copy; both copies pass through the breaker
+    private <T> Mono<T> resilient(String operation, Mono<T> call, RequestHedger hedger) {
+        return hedger.hedge(call.transformDeferred(CircuitBreakerOperator.of(circuitBreaker)))
+                .retryWhen(retrySpec(operation))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private ProductServiceException rejected(RuntimeException e) {
+        log.warn("Product service call rejected without being sent: {}", e.getMessage());
+        return new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
+                "Product service is unavailable: " + e.getMessage());
+    }
+
+    private Retry retrySpec(String operation) {
+        return Retry.backoff(2, Duration.ofMillis(500))
+                .filter(this::isTransientError)
+                .doBeforeRetry(signal -> meterRegistry.counter(RETRY_COUNTER, "operation", operation).increment());
+    }
+
+    // doFinally also covers calls cancelled by a failed sibling in a flatMap, which would otherwise go unrecorded
+    private <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            return call
+                    .doOnError(error::set)
+                    .doFinally(signal -> sample.stop(requestTimer(operation, switch (signal) {
+                        case ON_ERROR -> outcome(error.get());
+                        case CANCEL -> "CANCELLED";
+                        default -> "SUCCESS";
+                    })));
+        });
+    }
+
+    private Timer requestTimer(String operation, String outcome) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Calls from order-service to product-service, including retries")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private String outcome(Throwable e) {
+        if (e instanceof ProductServiceException pse) {
+            return pse.getErrorCode().name();
+        }
+        if (e.getCause() instanceof ProductServiceException pse) {
+            return pse.getErrorCode().name();
+        }
+        return ErrorCode.PRODUCT_SERVICE_UNAVAILABLE.name();
+    }
+
     private boolean isTransientError(Throwable throwable) {
         if (throwable instanceof WebClientResponseException ex) {
             return ex.getStatusCode().is5xxServerError();
@@ -113,6 +268,26 @@ public class ProductServiceClient {
         return throwable instanceof WebClientRequestException;
     }
 
+    private Throwable mapBatchFailure(Throwable e, String operation) {
+        if (e instanceof ProductServiceException) {
+            return e;
+        }
+        if (e.getCause() instanceof ProductServiceException pse) {
+            return pse;
+        }
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+            return rejected((RuntimeException) e);
+        }
+        if (e instanceof WebClientRequestException) {
+            log.error("Product service connection error {}: {}", operation, e.getMessage());
+            return new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
+                    "Product service is unavailable: " + e.getMessage());
+        }
+        log.error("Error {}: {}", operation, e.getMessage());
+        return new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
+                "Product service is unavailable");
+    }
+
     private ProductServiceException mapClientError(ProductServiceErrorResponse err, String productId,
                                                    HttpStatusCode statusCode) {
         if (statusCode.value() == 404) {
@@ -141,4 +316,17 @@ public class ProductServiceClient {
         return new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
                 "Product service inventory error for product: " + productId);
     }
+
+    private ProductServiceException mapBatchInventoryError(ProductServiceErrorResponse err) {
+        String errorCode = err != null ? err.getErrorCode() : "";
+        String message = err != null && err.getMessage() != null ? err.getMessage() : "Inventory reservation failed";
+        if ("INSUFFICIENT_STOCK".equals(errorCode)) {
+            return new ProductServiceException(ErrorCode.OUT_OF_STOCK, message);
+        }
+        if ("INVENTORY_NOT_FOUND".equals(errorCode)) {
+            return new ProductServiceException(ErrorCode.PRODUCT_NOT_FOUND, message);
+        }
+        return new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE,
+                "Product service inventory batch error: " + message);
+    }
 }
@@ -0,0 +1,126 @@
+package com.orderservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Sends a second copy of an idempotent read once the first has been outstanding longer than the observed
+// percentile latency, and takes whichever answers first. Hedges are paid for from a budget that each request tops up
+// by maxExtraLoad, so they can never add more than that share of extra load on product-service.
+class RequestHedger {
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final int MIN_SAMPLES = 100;
+    private static final int REFRESH_EVERY = 100;
+    private static final long TOKEN = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerRequest;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long hedgeDelayNanos = -1;
+
+    private final Counter hedges;
+    private final Counter wins;
+
+    RequestHedger(String operation, MeterRegistry meterRegistry, boolean enabled, double percentile,
+                  double maxExtraLoad, Duration minDelay) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerRequest = (long) (maxExtraLoad * TOKEN);
+        this.hedges = Counter.builder("product.client.hedges")
+                .description("Hedged requests sent to product-service after the primary passed the hedge delay")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        this.wins = Counter.builder("product.client.hedge.wins")
+                .description("Hedged requests that answered before the primary")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("product.client.hedge.delay", this, RequestHedger::getHedgeDelayMillis)
+                .description("Milliseconds a request may be outstanding before it is hedged, -1 until enough samples")
+                .tag("operation", operation)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    <T> Mono<T> hedge(Mono<T> attempt) {
+        if (!enabled) {
+            return attempt;
+        }
+        Mono<T> timedAttempt = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnSuccess(result -> recordLatency(System.nanoTime() - start));
+        });
+
+        return Mono.defer(() -> {
+            earnToken();
+            long delay = hedgeDelayNanos;
+            if (delay < 0) {
+                return timedAttempt;
+            }
+            Mono<T> hedge = Mono.delay(Duration.ofNanos(delay))
+                    .then(Mono.defer(() -> {
+                        if (!spendToken()) {
+                            return Mono.<T>never();
+                        }
+                        hedges.increment();
+                        return timedAttempt
+                                .doOnNext(result -> wins.increment())
+                                // A failed hedge must not fail the call while the primary may still answer
+                                .onErrorResume(e -> Mono.never());
+                    }));
+            return Mono.firstWithSignal(timedAttempt, hedge);
+        });
+    }
+
+    void recordLatency(long nanos) {
+        long count = sampleCount.getAndIncrement();
+        samples.set((int) (count % WINDOW_SIZE), nanos);
+        if (count + 1 >= MIN_SAMPLES && (count + 1) % REFRESH_EVERY == 0) {
+            refreshDelay((int) Math.min(count + 1, WINDOW_SIZE));
+        }
+    }
+
+    private void refreshDelay(int size) {
+        long[] window = new long[size];
+        for (int i = 0; i < size; i++) {
+            window[i] = samples.get(i);
+        }
+        Arrays.sort(window);
+        long observed = window[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        hedgeDelayNanos = Math.max(minDelayNanos, observed);
+    }
+
+    private void earnToken() {
+        tokens.getAndUpdate(current -> Math.min(MAX_TOKENS, current + tokensPerRequest));
+    }
+
+    private boolean spendToken() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    long getHedgeDelayMillis() {
+        return hedgeDelayNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos);
+    }
+}
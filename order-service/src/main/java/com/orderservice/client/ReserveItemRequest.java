@@ -0,0 +1,16 @@
+package com.orderservice.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReserveItemRequest {
+
+    private String productId;
+    private Integer qty;
+}
@@ -13,6 +13,7 @@ import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -32,9 +33,23 @@ public class WebClientConfig {
     @Value("${product.service.read-timeout-ms:5000}")
     private int readTimeoutMs;
 
+    @Value("${product.service.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${product.service.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+
     @Bean
     public WebClient productServiceWebClient() {
-        HttpClient httpClient = HttpClient.create()
+        // Reactor Netty's default pool (16 connections per core) becomes the bottleneck once requests run on
+        // virtual threads and hundreds of orders block on product-service at the same time
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("product-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs + readTimeoutMs))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
                 .responseTimeout(Duration.ofMillis(readTimeoutMs))
                 .doOnConnected(conn ->
@@ -50,15 +65,18 @@ public class WebClientConfig {
     }
 
     private ExchangeFilterFunction correlationIdFilter() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            String correlationId = MDC.get(CORRELATION_ID_MDC_KEY);
-            if (correlationId != null) {
-                return reactor.core.publisher.Mono.just(
-                        ClientRequest.from(clientRequest)
-                                .header(CORRELATION_ID_HEADER, correlationId)
-                                .build());
-            }
-            return reactor.core.publisher.Mono.just(clientRequest);
-        });
+        // Requests subscribed from Netty threads have no MDC, so the id may also travel in the Reactor context
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest ->
+                reactor.core.publisher.Mono.deferContextual(context -> {
+                    String correlationId = context.getOrDefault(CORRELATION_ID_MDC_KEY,
+                            MDC.get(CORRELATION_ID_MDC_KEY));
+                    if (correlationId != null) {
+                        return reactor.core.publisher.Mono.just(
+                                ClientRequest.from(clientRequest)
+                                        .header(CORRELATION_ID_HEADER, correlationId)
+                                        .build());
+                    }
+                    return reactor.core.publisher.Mono.just(clientRequest);
+                }));
     }
 }
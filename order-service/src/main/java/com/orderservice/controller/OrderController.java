@@ -3,6 +3,7 @@ package com.orderservice.controller;
 import com.orderservice.dto.request.CreateOrderRequest;
 import com.orderservice.dto.response.OrderResponse;
 import com.orderservice.dto.response.PageResponse;
+import com.orderservice.service.IdempotencyService;
 import com.orderservice.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,13 +21,18 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(summary = "Create a new order",
-            description = "Creates a new order, validates products, fetches prices, and reserves inventory")
+            description = "Creates a new order, validates products, fetches prices, and reserves inventory. "
+                    + "Retries with the same Idempotency-Key return the first response instead of creating another order")
     public ResponseEntity<OrderResponse> createOrder(
+            @Parameter(description = "Client-generated key that makes retries safe")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+        OrderResponse response = idempotencyService.execute("create-order", idempotencyKey, request,
+                OrderResponse.class, () -> orderService.createOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -0,0 +1,11 @@
+package com.orderservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ConflictException extends BusinessException {
+
+    public ConflictException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+}
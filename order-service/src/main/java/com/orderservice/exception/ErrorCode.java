@@ -8,5 +8,8 @@ public enum ErrorCode {
     PRODUCT_NOT_FOUND,
     PRODUCT_INACTIVE,
     OUT_OF_STOCK,
+    IDEMPOTENCY_KEY_REUSED,
+    IDEMPOTENT_REQUEST_IN_PROGRESS,
+    SERVICE_OVERLOADED,
     INTERNAL_ERROR
 }
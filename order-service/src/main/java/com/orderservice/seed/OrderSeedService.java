@@ -1,6 +1,6 @@
 package com.orderservice.seed;
 
-import com.orderservice.client.ProductPageResponse;
+import com.orderservice.client.ProductCursorPageResponse;
 import com.orderservice.client.ProductResponse;
 import com.orderservice.client.ProductServiceClient;
 import com.orderservice.entity.Order;
@@ -100,21 +100,21 @@ public class OrderSeedService {
 
     List<ProductResponse> fetchActiveProducts() {
         List<ProductResponse> allProducts = new ArrayList<>();
-        int page = 0;
+        String cursor = "";
         boolean hasMore = true;
 
         while (hasMore) {
-            final int currentPage = page;
+            final String after = cursor;
             try {
-                ProductPageResponse pageResponse = productServiceWebClient.get()
+                ProductCursorPageResponse pageResponse = productServiceWebClient.get()
                         .uri(uriBuilder -> uriBuilder
                                 .path("/api/v1/products")
-                                .queryParam("page", currentPage)
+                                .queryParam("after", after)
                                 .queryParam("size", PRODUCT_PAGE_SIZE)
                                 .queryParam("active", true)
                                 .build())
                         .retrieve()
-                        .bodyToMono(ProductPageResponse.class)
+                        .bodyToMono(ProductCursorPageResponse.class)
                         .block();
 
                 if (pageResponse == null || pageResponse.getContent() == null || pageResponse.getContent().isEmpty()) {
@@ -125,13 +125,13 @@ public class OrderSeedService {
                             allProducts.add(p);
                         }
                     }
-                    hasMore = !pageResponse.isLast();
+                    cursor = pageResponse.getNextCursor();
+                    hasMore = pageResponse.isHasNext() && cursor != null;
                 }
             } catch (Exception e) {
-                log.warn("Error fetching products page {}: {}", currentPage, e.getMessage());
+                log.warn("Error fetching products after cursor '{}': {}", after, e.getMessage());
                 hasMore = false;
             }
-            page++;
 
             if (allProducts.size() >= 1000) {
                 break;
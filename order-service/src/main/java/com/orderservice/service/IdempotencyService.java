@@ -0,0 +1,209 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderservice.entity.IdempotencyRecord;
+import com.orderservice.exception.BusinessException;
+import com.orderservice.exception.ConflictException;
+import com.orderservice.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    private final Cache<String, IdempotencyRecord> completedCache;
+
+    public IdempotencyService(MongoTemplate mongoTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.pending-timeout:60s}") Duration pendingTimeout,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.pendingTimeout = pendingTimeout;
+        this.completedCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public <T> T execute(String scope, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = cachedRecord(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<IdempotencyRecord> own = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(id, own);
+        if (running != null) {
+            // A duplicate that arrives while the first request is still running waits for its result
+            log.info("Coalescing duplicate request for idempotency key: {}", id);
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            return executeOnce(id, requestHash, responseType, action, own);
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, own);
+        }
+    }
+
+    private <T> T executeOnce(String id, String requestHash, Class<T> responseType, Supplier<T> action,
+                              CompletableFuture<IdempotencyRecord> own) {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.insert(IdempotencyRecord.builder()
+                    .id(id)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.PENDING)
+                    .createdAt(now)
+                    .expiresAt(now.plus(pendingTimeout))
+                    .build());
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null || !IdempotencyRecord.COMPLETED.equals(existing.getStatus())) {
+                throw new ConflictException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            cache(existing);
+            own.complete(existing);
+            return replay(existing, requestHash, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Failed requests are not recorded, so the client can retry them with the same key
+            mongoTemplate.remove(byId(id), IdempotencyRecord.class);
+            throw e;
+        }
+
+        IdempotencyRecord completed = IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.COMPLETED)
+                .responseBody(serialize(response))
+                .createdAt(now)
+                .expiresAt(Instant.now().plus(ttl))
+                .build();
+        mongoTemplate.updateFirst(byId(id), new Update()
+                .set("status", completed.getStatus())
+                .set("responseBody", completed.getResponseBody())
+                .set("expiresAt", completed.getExpiresAt()), IdempotencyRecord.class);
+        cache(completed);
+        own.complete(completed);
+        return response;
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ConflictException(ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                    "Idempotency-Key was already used with a different request body");
+        }
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored response for " + record.getId(), e);
+        }
+    }
+
+    // Waits on a copy so the timeout does not complete the owner's future for the other waiters
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.copy().orTimeout(pendingTimeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ConflictException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private IdempotencyRecord cachedRecord(String id) {
+        IdempotencyRecord record = completedCache.getIfPresent(id);
+        // Records replayed from another instance can expire before this cache's own ttl does
+        if (record != null && record.getExpiresAt().isBefore(Instant.now())) {
+            completedCache.asMap().remove(id, record);
+            return null;
+        }
+        return record;
+    }
+
+    private void cache(IdempotencyRecord record) {
+        completedCache.put(record.getId(), record);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash request", e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to store response", e);
+        }
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
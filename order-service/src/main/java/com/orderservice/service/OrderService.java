@@ -1,7 +1,9 @@
 package com.orderservice.service;
 
+import com.orderservice.client.ProductBatchResponse;
 import com.orderservice.client.ProductResponse;
 import com.orderservice.client.ProductServiceClient;
+import com.orderservice.client.ReserveItemRequest;
 import com.orderservice.dto.request.CreateOrderRequest;
 import com.orderservice.dto.request.OrderItemRequest;
 import com.orderservice.dto.response.OrderItemResponse;
@@ -14,19 +16,29 @@ import com.orderservice.exception.ErrorCode;
 import com.orderservice.exception.InvalidOrderStateException;
 import com.orderservice.exception.ProductServiceException;
 import com.orderservice.exception.ResourceNotFoundException;
+import com.orderservice.filter.CorrelationIdFilter;
 import com.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -36,59 +48,76 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ProductServiceClient productServiceClient;
 
+    @Value("${app.order.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.order.max-concurrency:4}")
+    private int maxConcurrency;
+
     public OrderResponse createOrder(CreateOrderRequest request) {
         log.info("Creating order for customer: {}", request.getCustomerId());
 
+        List<String> productIds = request.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .toList();
+        Map<String, ProductResponse> productsById = fetchProducts(productIds);
+
         List<OrderItem> orderItems = new ArrayList<>();
-        List<ReservedItem> reservedItems = new ArrayList<>();
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            ProductResponse product = productsById.get(itemRequest.getProductId());
 
-        try {
-            for (OrderItemRequest itemRequest : request.getItems()) {
-                ProductResponse product = productServiceClient.getProduct(itemRequest.getProductId());
+            if (product == null) {
+                throw new ProductServiceException(ErrorCode.PRODUCT_NOT_FOUND,
+                        "Product not found: " + itemRequest.getProductId());
+            }
+            if (!product.isActive()) {
+                throw new ProductServiceException(ErrorCode.PRODUCT_INACTIVE,
+                        "Product is inactive: " + itemRequest.getProductId());
+            }
 
-                if (!product.isActive()) {
-                    throw new ProductServiceException(ErrorCode.PRODUCT_INACTIVE,
-                            "Product is inactive: " + itemRequest.getProductId());
-                }
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+
+            OrderItem orderItem = OrderItem.builder()
+                    .productId(product.getProductId())
+                    .sku(product.getSku())
+                    .productName(product.getName())
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .lineTotal(lineTotal)
+                    .build();
+
+            orderItems.add(orderItem);
+        }
 
-                productServiceClient.reserveInventory(itemRequest.getProductId(), itemRequest.getQuantity());
-                reservedItems.add(new ReservedItem(itemRequest.getProductId(), itemRequest.getQuantity()));
+        List<ReserveItemRequest> reservations = request.getItems().stream()
+                .map(item -> ReserveItemRequest.builder()
+                        .productId(item.getProductId())
+                        .qty(item.getQuantity())
+                        .build())
+                .toList();
+        List<ReservedItem> reservedItems = reserveInventory(reservations);
 
-                BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+        try {
+            BigDecimal orderTotal = calculateOrderTotal(orderItems);
 
-                OrderItem orderItem = OrderItem.builder()
-                        .productId(product.getProductId())
-                        .sku(product.getSku())
-                        .productName(product.getName())
-                        .quantity(itemRequest.getQuantity())
-                        .unitPrice(product.getPrice())
-                        .lineTotal(lineTotal)
-                        .build();
+            Order order = Order.builder()
+                    .orderId(UUID.randomUUID().toString())
+                    .customerId(request.getCustomerId())
+                    .status(OrderStatus.CREATED)
+                    .items(orderItems)
+                    .orderTotal(orderTotal)
+                    .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
+                    .build();
 
-                orderItems.add(orderItem);
-            }
+            Order savedOrder = orderRepository.save(order);
+            log.info("Order created: {}", savedOrder.getOrderId());
+
+            return mapToResponse(savedOrder);
         } catch (Exception e) {
             releaseReservedItems(reservedItems);
             throw e;
         }
-
-        BigDecimal orderTotal = orderItems.stream()
-                .map(OrderItem::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Order order = Order.builder()
-                .orderId(UUID.randomUUID().toString())
-                .customerId(request.getCustomerId())
-                .status(OrderStatus.CREATED)
-                .items(orderItems)
-                .orderTotal(orderTotal)
-                .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
-                .build();
-
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created: {}", savedOrder.getOrderId());
-
-        return mapToResponse(savedOrder);
     }
 
     public OrderResponse getOrderById(String orderId) {
@@ -176,6 +205,56 @@ public class OrderService {
         return mapToResponse(savedOrder);
     }
 
+    static BigDecimal calculateOrderTotal(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(OrderItem::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Map<String, ProductResponse> fetchProducts(List<String> productIds) {
+        Map<String, ProductResponse> productsById = withCorrelationId(Flux.fromIterable(partition(productIds))
+                .flatMap(productServiceClient::getProductsBatch, maxConcurrency)
+                .flatMapIterable(ProductBatchResponse::getProducts)
+                .collectMap(ProductResponse::getProductId, Function.identity()))
+                .block();
+        return productsById != null ? productsById : Map.of();
+    }
+
+    private List<ReservedItem> reserveInventory(List<ReserveItemRequest> reservations) {
+        List<ReservedItem> reservedItems = Collections.synchronizedList(new ArrayList<>());
+        try {
+            // Errors are delayed until every batch has finished, so all reservations that landed are known
+            withCorrelationId(Flux.fromIterable(partition(reservations))
+                    .flatMapDelayError(batch -> productServiceClient.reserveInventoryBatch(batch)
+                            .doOnSuccess(reserved -> batch.forEach(item ->
+                                    reservedItems.add(new ReservedItem(item.getProductId(), item.getQty())))),
+                            maxConcurrency, 1)
+                    .then())
+                    .block();
+        } catch (RuntimeException e) {
+            releaseReservedItems(List.copyOf(reservedItems));
+            Throwable cause = Exceptions.unwrapMultiple(Exceptions.unwrap(e)).get(0);
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+        return List.copyOf(reservedItems);
+    }
+
+    private <T> List<List<T>> partition(List<T> items) {
+        int size = Math.max(batchSize, 1);
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            batches.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return batches;
+    }
+
+    private <T> Mono<T> withCorrelationId(Mono<T> mono) {
+        String correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY);
+        return correlationId != null
+                ? mono.contextWrite(Context.of(CorrelationIdFilter.CORRELATION_ID_MDC_KEY, correlationId))
+                : mono;
+    }
+
     void releaseReservedItems(List<ReservedItem> reservedItems) {
         for (ReservedItem reserved : reservedItems) {
             try {
@@ -0,0 +1,136 @@
+package com.orderservice.cache;
+
+import com.orderservice.client.ProductResponse;
+import com.orderservice.exception.ErrorCode;
+import com.orderservice.exception.ProductServiceException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductLookupCacheTest {
+
+    private static ProductResponse product(String productId) {
+        return ProductResponse.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(BigDecimal.TEN)
+                .active(true)
+                .build();
+    }
+
+    private static Mono<Map<String, ProductResponse>> found(List<String> productIds) {
+        return Mono.just(productIds.stream().collect(Collectors.toMap(id -> id, ProductLookupCacheTest::product)));
+    }
+
+    @Test
+    void get_shouldShareOneInFlightLookupBetweenConcurrentCallers() throws Exception {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ZERO);
+        Sinks.One<ProductResponse> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<CompletableFuture<ProductResponse>> callers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            callers.add(cache.get("hot-product", id -> {
+                loads.incrementAndGet();
+                return upstream.asMono();
+            }).toFuture());
+        }
+        upstream.tryEmitValue(product("hot-product"));
+
+        for (CompletableFuture<ProductResponse> caller : callers) {
+            assertEquals("hot-product", caller.get(5, TimeUnit.SECONDS).getProductId());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldServeRepeatedLookupsFromCacheWithinTtl() {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("product-1", id -> {
+                loads.incrementAndGet();
+                return Mono.just(product(id));
+            }).block();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_shouldFetchAgainWhenTtlIsZero() {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("product-1", id -> {
+                loads.incrementAndGet();
+                return Mono.just(product(id));
+            }).block();
+        }
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheFailures() {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ofMinutes(1));
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class, () -> cache.get("product-1",
+                id -> Mono.error(new ProductServiceException(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE, "down"))).block());
+        assertEquals(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE, ex.getErrorCode());
+
+        assertEquals("product-1", cache.get("product-1", id -> Mono.just(product(id))).block().getProductId());
+    }
+
+    @Test
+    void getAll_shouldOnlyLoadProductsThatAreNotCached() {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ofMinutes(1));
+        List<List<String>> loaded = Collections.synchronizedList(new ArrayList<>());
+
+        cache.getAll(List.of("product-1", "product-2"), ids -> {
+            loaded.add(ids);
+            return found(ids);
+        }).block();
+        Map<String, ProductResponse> result = cache.getAll(List.of("product-1", "product-2", "product-3"), ids -> {
+            loaded.add(ids);
+            return found(ids);
+        }).block();
+
+        assertEquals(3, result.size());
+        assertEquals(2, loaded.size());
+        assertEquals(List.of("product-3"), loaded.get(1));
+    }
+
+    @Test
+    void getAll_shouldLeaveOutProductsTheLoaderDidNotFind() {
+        ProductLookupCache cache = new ProductLookupCache(100, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, ProductResponse> result = cache.getAll(List.of("product-1", "missing"), ids -> {
+                loads.incrementAndGet();
+                return found(ids.stream().filter(id -> !id.equals("missing")).toList());
+            }).block();
+
+            assertEquals(1, result.size());
+            assertTrue(result.containsKey("product-1"));
+        }
+        // The missing id is looked up again rather than remembered as absent
+        assertEquals(2, loads.get());
+    }
+}
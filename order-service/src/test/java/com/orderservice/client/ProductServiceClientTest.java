@@ -0,0 +1,196 @@
+package com.orderservice.client;
+
+import com.orderservice.cache.ProductLookupCache;
+import com.orderservice.exception.ErrorCode;
+import com.orderservice.exception.ProductServiceException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductServiceClientTest {
+
+    private MockWebServer productService;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private BulkheadRegistry bulkheadRegistry;
+    private WebClient webClient;
+    private ProductServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        productService = new MockWebServer();
+        productService.start();
+
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordExceptions(WebClientRequestException.class, WebClientResponseException.class)
+                .build());
+        bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        webClient = WebClient.builder()
+                .baseUrl(productService.url("/").toString())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        client = new ProductServiceClient(webClient, new SimpleMeterRegistry(), circuitBreakerRegistry,
+                bulkheadRegistry, new ProductLookupCache(100, Duration.ZERO), false, 0.95, 0.05,
+                Duration.ofMillis(5));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        productService.shutdown();
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(ProductServiceClient.RESILIENCE_INSTANCE);
+    }
+
+    @Test
+    void getProduct_shouldFailFastWithoutCallingProductServiceOnceCircuitIsOpen() {
+        for (int i = 0; i < 3; i++) {
+            productService.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        ProductServiceException first = assertThrows(ProductServiceException.class,
+                () -> client.getProduct("product-1"));
+        assertEquals(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE, first.getErrorCode());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker().getState());
+        int requestsWhenOpened = productService.getRequestCount();
+
+        long start = System.nanoTime();
+        ProductServiceException rejected = assertThrows(ProductServiceException.class,
+                () -> client.reserveInventory("product-1", 1));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE, rejected.getErrorCode());
+        assertEquals(requestsWhenOpened, productService.getRequestCount());
+        assertTrue(elapsedMs < 200, "open circuit should reject immediately but took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void getProduct_shouldNotCountBusinessErrorsAgainstCircuit() {
+        for (int i = 0; i < 3; i++) {
+            productService.enqueue(new MockResponse()
+                    .setResponseCode(404)
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("{\"errorCode\":\"PRODUCT_NOT_FOUND\",\"message\":\"not found\"}"));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            ProductServiceException ex = assertThrows(ProductServiceException.class,
+                    () -> client.getProduct("missing"));
+            assertEquals(ErrorCode.PRODUCT_NOT_FOUND, ex.getErrorCode());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker().getState());
+        assertEquals(3, productService.getRequestCount());
+    }
+
+    @Test
+    void getProduct_shouldRejectWhenBulkheadIsFull() throws Exception {
+        productService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"products\":[],\"missingIds\":[]}")
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+
+        Disposable slowBatch = client.getProductsBatch(List.of("product-1")).subscribe();
+        try {
+            assertNotNull(productService.takeRequest(5, TimeUnit.SECONDS));
+
+            ProductServiceException rejected = assertThrows(ProductServiceException.class,
+                    () -> client.getProduct("product-2"));
+
+            assertEquals(ErrorCode.PRODUCT_SERVICE_UNAVAILABLE, rejected.getErrorCode());
+            assertEquals(1, productService.getRequestCount());
+        } finally {
+            slowBatch.dispose();
+        }
+    }
+
+    @Test
+    void reserveInventoryBatch_shouldRecordCancelledCalls() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductServiceClient timedClient = new ProductServiceClient(webClient, meterRegistry, circuitBreakerRegistry,
+                bulkheadRegistry, new ProductLookupCache(100, Duration.ZERO), false, 0.95, 0.05, Duration.ofMillis(5));
+        productService.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("[]")
+                .setHeadersDelay(1, TimeUnit.SECONDS));
+
+        Disposable reservation = timedClient.reserveInventoryBatch(List.of(
+                ReserveItemRequest.builder().productId("product-1").qty(1).build())).subscribe();
+        assertNotNull(productService.takeRequest(5, TimeUnit.SECONDS));
+        reservation.dispose();
+
+        Timer cancelled = meterRegistry.find("product.client.requests")
+                .tags("operation", "reserveInventoryBatch", "outcome", "CANCELLED")
+                .timer();
+        assertNotNull(cancelled);
+        assertEquals(1, cancelled.count());
+    }
+
+    @Test
+    void getProduct_shouldReturnHedgedResponseWhenPrimaryIsSlow() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductServiceClient hedgingClient = new ProductServiceClient(webClient, meterRegistry,
+                circuitBreakerRegistry, bulkheadRegistry, new ProductLookupCache(100, Duration.ZERO), true, 0.95, 0.05,
+                Duration.ofMillis(50));
+        AtomicInteger requests = new AtomicInteger();
+        productService.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "application/json")
+                        .setBody("{\"productId\":\"product-1\",\"name\":\"Keyboard\"}");
+                // The first lookup after warm-up stalls, as it would behind a GC pause
+                return requests.incrementAndGet() == 101 ? response.setHeadersDelay(2, TimeUnit.SECONDS) : response;
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            hedgingClient.getProduct("product-1");
+        }
+
+        long start = System.nanoTime();
+        ProductResponse product = hedgingClient.getProduct("product-1");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("product-1", product.getProductId());
+        assertEquals(102, requests.get());
+        assertTrue(elapsedMs < 1000, "hedged lookup should not wait for the stalled primary but took " + elapsedMs + "ms");
+        assertEquals(1.0, meterRegistry.get("product.client.hedge.wins").tag("operation", "getProduct")
+                .counter().count());
+    }
+}
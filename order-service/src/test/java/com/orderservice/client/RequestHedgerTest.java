@@ -0,0 +1,104 @@
+package com.orderservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private static final Duration SLOW = Duration.ofMillis(300);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RequestHedger hedger(boolean enabled) {
+        return new RequestHedger("getProduct", meterRegistry, enabled, 0.95, 0.05, Duration.ofMillis(5));
+    }
+
+    // The first subscription answers slowly and any later one (the hedge) answers at once
+    private Mono<String> slowPrimary(AtomicInteger subscriptions, Mono<String> hedgeResult) {
+        return Mono.defer(() -> subscriptions.incrementAndGet() == 1
+                ? Mono.delay(SLOW).thenReturn("primary")
+                : hedgeResult);
+    }
+
+    private void warmUp(RequestHedger hedger) {
+        for (int i = 0; i < 100; i++) {
+            hedger.hedge(Mono.just("fast")).block();
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("operation", "getProduct").counter().count();
+    }
+
+    @Test
+    void hedge_shouldNotHedgeBeforeLatencyIsKnown() {
+        RequestHedger hedger = hedger(true);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        assertEquals("primary", hedger.hedge(slowPrimary(subscriptions, Mono.just("hedge"))).block());
+        assertEquals(1, subscriptions.get());
+        assertEquals(-1, hedger.getHedgeDelayMillis());
+    }
+
+    @Test
+    void hedge_shouldTakeHedgeWhenPrimaryIsSlowerThanObservedPercentile() {
+        RequestHedger hedger = hedger(true);
+        warmUp(hedger);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedger.hedge(slowPrimary(subscriptions, Mono.just("hedge"))).block();
+
+        assertEquals("hedge", result);
+        assertEquals(2, subscriptions.get());
+        assertEquals(5, hedger.getHedgeDelayMillis());
+        assertEquals(1.0, count("product.client.hedges"));
+        assertEquals(1.0, count("product.client.hedge.wins"));
+    }
+
+    @Test
+    void hedge_shouldStopHedgingOnceBudgetIsSpent() {
+        RequestHedger hedger = hedger(true);
+        warmUp(hedger);
+
+        int hedged = 0;
+        for (int i = 0; i < 7; i++) {
+            AtomicInteger subscriptions = new AtomicInteger();
+            if ("hedge".equals(hedger.hedge(slowPrimary(subscriptions, Mono.just("hedge"))).block())) {
+                hedged++;
+            }
+        }
+
+        // 100 warm-up requests at 5% buy five hedges
+        assertEquals(5, hedged);
+        assertEquals(5.0, count("product.client.hedges"));
+    }
+
+    @Test
+    void hedge_shouldKeepWaitingForPrimaryWhenHedgeFails() {
+        RequestHedger hedger = hedger(true);
+        warmUp(hedger);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        String result = hedger.hedge(slowPrimary(subscriptions,
+                Mono.error(new IllegalStateException("hedge failed")))).block();
+
+        assertEquals("primary", result);
+        assertEquals(0.0, count("product.client.hedge.wins"));
+    }
+
+    @Test
+    void hedge_shouldPassThroughWhenDisabled() {
+        RequestHedger hedger = hedger(false);
+        warmUp(hedger);
+        AtomicInteger subscriptions = new AtomicInteger();
+
+        assertEquals("primary", hedger.hedge(slowPrimary(subscriptions, Mono.just("hedge"))).block());
+        assertEquals(1, subscriptions.get());
+    }
+}
@@ -0,0 +1,135 @@
+package com.orderservice.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                true, 2, 1, 100, 0.2);
+    }
+
+    @Test
+    void doFilter_shouldRejectWith503WhenLimitIsReached() throws Exception {
+        AdaptiveConcurrencyLimit limit = filter.getLimit();
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/orders");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("SERVICE_OVERLOADED"));
+        assertEquals(1.0, meterRegistry.get("order.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldReleaseSlotAfterRequestCompletes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders/ORD-1"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, filter.getLimit().getInFlight());
+    }
+
+    @Test
+    void doFilter_shouldNotLimitOtherPaths() throws Exception {
+        AdaptiveConcurrencyLimit limit = filter.getLimit();
+        limit.tryAcquire();
+        limit.tryAcquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void limit_shouldGrowWhileLatencyIsStableAndShrinkWhenItRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 0.2, clock::get);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndComplete(limit, FAST);
+        }
+        int grown = limit.getLimit();
+        assertTrue(grown > 20, "limit should grow under stable latency but was " + grown);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndComplete(limit, SLOW);
+        }
+        assertTrue(limit.getLimit() < grown / 2, "limit should shrink once latency rises but was " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 4);
+    }
+
+    @Test
+    void limit_shouldBackOffOnDroppedRequests() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 0.2, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, i == 0);
+        }
+        nextWindow();
+        limit.tryAcquire();
+        limit.release(FAST, false);
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void limit_shouldNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 0.2, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+            if (i % 10 == 0) {
+                nextWindow();
+            }
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    private void saturateAndComplete(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(rttNanos, false);
+        }
+        nextWindow();
+    }
+
+    private void nextWindow() {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+}
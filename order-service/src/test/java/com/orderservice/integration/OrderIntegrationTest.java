@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -73,6 +74,8 @@ class OrderIntegrationTest {
         registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
         registry.add("product.service.base-url",
                 () -> "http://localhost:" + mockWebServer.getPort());
+        // Tests stub different answers for the same product back to back
+        registry.add("app.cache.product.ttl", () -> "0s");
     }
 
     @BeforeEach
@@ -114,6 +117,46 @@ class OrderIntegrationTest {
                 .andExpect(header().exists("X-Correlation-Id"));
     }
 
+    @Test
+    void createOrder_shouldReplayFirstResponseForSameIdempotencyKey() throws Exception {
+        setupMockProductServiceForSuccess();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId("CUST-1001")
+                .currency("USD")
+                .items(List.of(
+                        OrderItemRequest.builder().productId(PRODUCT_ID).quantity(2).build()
+                ))
+                .build();
+
+        String first = mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int requestsAfterFirst = mockWebServer.getRequestCount();
+
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderId").value(objectMapper.readTree(first).get("orderId").asText()));
+
+        assertEquals(1, orderRepository.count());
+        assertEquals(requestsAfterFirst, mockWebServer.getRequestCount());
+
+        request.getItems().get(0).setQuantity(3);
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_KEY_REUSED"));
+    }
+
     @Test
     void createOrder_shouldReturn400WhenValidationFails() throws Exception {
         CreateOrderRequest request = CreateOrderRequest.builder()
@@ -134,9 +177,9 @@ class OrderIntegrationTest {
             @Override
             public MockResponse dispatch(RecordedRequest request) {
                 return new MockResponse()
-                        .setResponseCode(404)
+                        .setResponseCode(200)
                         .setHeader("Content-Type", "application/json")
-                        .setBody("{\"errorCode\":\"PRODUCT_NOT_FOUND\",\"message\":\"Product not found\"}");
+                        .setBody("{\"products\":[],\"missingIds\":[\"nonexistent-id\"]}");
             }
         });
 
@@ -159,12 +202,13 @@ class OrderIntegrationTest {
         mockWebServer.setDispatcher(new Dispatcher() {
             @Override
             public MockResponse dispatch(RecordedRequest request) {
-                if (request.getPath() != null && request.getPath().contains("/api/v1/products/")) {
+                if (request.getPath() != null && request.getPath().contains("/api/v1/products/batch")) {
                     return new MockResponse()
                             .setResponseCode(200)
                             .setHeader("Content-Type", "application/json")
-                            .setBody("{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
-                                    "\"name\":\"Inactive Product\",\"price\":10.00,\"active\":false}");
+                            .setBody("{\"products\":[{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
+                                    "\"name\":\"Inactive Product\",\"price\":10.00,\"active\":false}]," +
+                                    "\"missingIds\":[]}");
                 }
                 return new MockResponse().setResponseCode(404);
             }
@@ -189,12 +233,13 @@ class OrderIntegrationTest {
         mockWebServer.setDispatcher(new Dispatcher() {
             @Override
             public MockResponse dispatch(RecordedRequest request) {
-                if (request.getPath() != null && request.getPath().contains("/api/v1/products/")) {
+                if (request.getPath() != null && request.getPath().contains("/api/v1/products/batch")) {
                     return new MockResponse()
                             .setResponseCode(200)
                             .setHeader("Content-Type", "application/json")
-                            .setBody("{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
-                                    "\"name\":\"Test Product\",\"price\":29.99,\"active\":true}");
+                            .setBody("{\"products\":[{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
+                                    "\"name\":\"Test Product\",\"price\":29.99,\"active\":true}]," +
+                                    "\"missingIds\":[]}");
                 }
                 if (request.getPath() != null && request.getPath().contains("/reserve")) {
                     return new MockResponse()
@@ -361,19 +406,20 @@ class OrderIntegrationTest {
         mockWebServer.setDispatcher(new Dispatcher() {
             @Override
             public MockResponse dispatch(RecordedRequest request) {
-                if (request.getPath() != null && request.getPath().contains("/api/v1/products/")) {
+                if (request.getPath() != null && request.getPath().contains("/api/v1/products/batch")) {
                     return new MockResponse()
                             .setResponseCode(200)
                             .setHeader("Content-Type", "application/json")
-                            .setBody("{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
-                                    "\"name\":\"Test Product\",\"price\":29.99,\"currency\":\"USD\",\"active\":true}");
+                            .setBody("{\"products\":[{\"productId\":\"" + PRODUCT_ID + "\",\"sku\":\"SKU-001\"," +
+                                    "\"name\":\"Test Product\",\"price\":29.99,\"currency\":\"USD\",\"active\":true}]," +
+                                    "\"missingIds\":[]}");
                 }
-                if (request.getPath() != null && request.getPath().contains("/reserve")) {
+                if (request.getPath() != null && request.getPath().contains("/reserve-batch")) {
                     return new MockResponse()
                             .setResponseCode(200)
                             .setHeader("Content-Type", "application/json")
-                            .setBody("{\"productId\":\"" + PRODUCT_ID + "\",\"stockQty\":100," +
-                                    "\"reservedQty\":2,\"availableQty\":98}");
+                            .setBody("[{\"productId\":\"" + PRODUCT_ID + "\",\"stockQty\":100," +
+                                    "\"reservedQty\":2,\"availableQty\":98}]");
                 }
                 return new MockResponse().setResponseCode(404);
             }
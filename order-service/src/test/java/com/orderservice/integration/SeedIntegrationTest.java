@@ -314,7 +314,7 @@ class SeedIntegrationTest {
                             "\"price\":%.2f,\"currency\":\"USD\",\"active\":true}",
                     i, i, i, 10.0 + i * 5.0));
         }
-        sb.append("],\"page\":0,\"size\":100,\"totalElements\":10,\"totalPages\":1,\"first\":true,\"last\":true}");
+        sb.append("],\"size\":10,\"nextCursor\":null,\"hasNext\":false}");
         return sb.toString();
     }
 }
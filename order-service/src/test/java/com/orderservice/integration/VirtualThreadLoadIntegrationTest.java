@@ -0,0 +1,148 @@
+package com.orderservice.integration;
+
+import com.orderservice.repository.OrderRepository;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The adaptive limit would cap in-flight orders at max-limit; it is off here so the test measures raw virtual-thread
+// throughput. Deployments running both raise app.concurrency-limit.max-limit above their expected in-flight orders
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "app.concurrency-limit.enabled=false"})
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadIntegrationTest {
+
+    private static final int ORDERS = 400;
+    private static final long PRODUCT_SERVICE_LATENCY_MS = 500;
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0");
+
+    static MockWebServer mockWebServer;
+
+    static final AtomicInteger inFlightLookups = new AtomicInteger();
+    static final AtomicInteger peakInFlightLookups = new AtomicInteger();
+    static final Set<String> forwardedCorrelationIds = ConcurrentHashMap.newKeySet();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeAll
+    static void startMockWebServer() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String path = request.getPath();
+                if (path != null && path.startsWith("/api/v1/products/batch")) {
+                    forwardedCorrelationIds.add(request.getHeader("X-Correlation-Id"));
+                    peakInFlightLookups.accumulateAndGet(inFlightLookups.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(PRODUCT_SERVICE_LATENCY_MS);
+                    } finally {
+                        inFlightLookups.decrementAndGet();
+                    }
+                    String productId = request.getBody().readUtf8().replaceAll(".*\"ids\":\\[\"([^\"]+)\".*", "$1");
+                    return json("{\"products\":[{\"productId\":\"" + productId + "\",\"sku\":\"SKU-" + productId
+                            + "\",\"name\":\"Load Product\",\"price\":10.00,\"currency\":\"USD\",\"active\":true}],"
+                            + "\"missingIds\":[]}");
+                }
+                if (path != null && path.startsWith("/api/v1/inventory/reserve-batch")) {
+                    return json("[]");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        mockWebServer.start();
+    }
+
+    @AfterAll
+    static void stopMockWebServer() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("product.service.base-url",
+                () -> "http://localhost:" + mockWebServer.getPort());
+        registry.add("product.service.read-timeout-ms", () -> 30000);
+    }
+
+    @Test
+    void createOrder_shouldScalePastPlatformThreadPoolOnVirtualThreads() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(32))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String body = "{\"customerId\":\"CUST-LOAD\",\"items\":[{\"productId\":\"product-" + i
+                    + "\",\"quantity\":1}]}";
+            responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Correlation-Id", "load-" + i)
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            HttpResponse<String> response = responses.get(i).join();
+            assertEquals(201, response.statusCode(), response.body());
+            assertEquals("load-" + i, response.headers().firstValue("X-Correlation-Id").orElse(null));
+        }
+
+        // Tomcat's platform thread pool would cap this at 200 orders blocked on product-service at once
+        assertTrue(peakInFlightLookups.get() > 200, "peak in-flight lookups: " + peakInFlightLookups.get());
+
+        Set<String> expectedIds = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < ORDERS; i++) {
+            expectedIds.add("load-" + i);
+        }
+        assertEquals(expectedIds, forwardedCorrelationIds);
+        assertEquals(ORDERS, orderRepository.count());
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}
@@ -0,0 +1,210 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.orderservice.dto.request.CreateOrderRequest;
+import com.orderservice.dto.request.OrderItemRequest;
+import com.orderservice.dto.response.OrderResponse;
+import com.orderservice.entity.IdempotencyRecord;
+import com.orderservice.exception.ConflictException;
+import com.orderservice.exception.ErrorCode;
+import com.orderservice.exception.ProductServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private IdempotencyService idempotencyService;
+
+    private final CreateOrderRequest request = CreateOrderRequest.builder()
+            .customerId("CUST-001")
+            .items(List.of(OrderItemRequest.builder().productId("product-1").quantity(2).build()))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(mongoTemplate, objectMapper,
+                Duration.ofHours(24), Duration.ofSeconds(60), 100);
+    }
+
+    private OrderResponse order(String orderId) {
+        return OrderResponse.builder().orderId(orderId).customerId("CUST-001").createdAt(Instant.now()).build();
+    }
+
+    @Test
+    void execute_shouldRunActionDirectlyWithoutKey() {
+        OrderResponse response = idempotencyService.execute("create-order", null, request,
+                OrderResponse.class, () -> order("ORD-1"));
+
+        assertEquals("ORD-1", response.getOrderId());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void execute_shouldStoreFirstResponseAndReplayFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+
+        OrderResponse first = idempotencyService.execute("create-order", "key-1", request,
+                OrderResponse.class, () -> order("ORD-" + calls.incrementAndGet()));
+        OrderResponse second = idempotencyService.execute("create-order", "key-1", request,
+                OrderResponse.class, () -> order("ORD-" + calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals("ORD-1", first.getOrderId());
+        assertEquals("ORD-1", second.getOrderId());
+
+        ArgumentCaptor<IdempotencyRecord> pending = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(mongoTemplate).insert(pending.capture());
+        assertEquals("create-order:key-1", pending.getValue().getId());
+        assertEquals(IdempotencyRecord.PENDING, pending.getValue().getStatus());
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedWithDifferentRequest() {
+        idempotencyService.execute("create-order", "key-1", request, OrderResponse.class, () -> order("ORD-1"));
+
+        CreateOrderRequest otherRequest = CreateOrderRequest.builder()
+                .customerId("CUST-002")
+                .items(request.getItems())
+                .build();
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> idempotencyService.execute("create-order", "key-1", otherRequest,
+                        OrderResponse.class, () -> order("ORD-2")));
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, ex.getErrorCode());
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentDuplicatesOntoInFlightRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("create-order", "key-1", request, OrderResponse.class, () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return order("ORD-1");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("create-order", "key-1", request, OrderResponse.class, () -> {
+                    calls.incrementAndGet();
+                    return order("ORD-2");
+                }));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertEquals("ORD-1", first.get(5, TimeUnit.SECONDS).getOrderId());
+        assertEquals("ORD-1", duplicate.get(5, TimeUnit.SECONDS).getOrderId());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldStopWaitingOnInFlightDuplicateAfterPendingTimeout() throws Exception {
+        IdempotencyService service = new IdempotencyService(mongoTemplate, objectMapper,
+                Duration.ofHours(24), Duration.ofMillis(100), 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() ->
+                service.execute("create-order", "key-1", request, OrderResponse.class, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return order("ORD-1");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> service.execute("create-order", "key-1", request, OrderResponse.class, () -> order("ORD-2")));
+        assertEquals(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS, ex.getErrorCode());
+
+        release.countDown();
+        assertEquals("ORD-1", first.get(5, TimeUnit.SECONDS).getOrderId());
+    }
+
+    @Test
+    void execute_shouldReplayResponseCompletedOnAnotherInstance() throws Exception {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        String requestHash = (String) ReflectionTestUtils.invokeMethod(idempotencyService, "hash", request);
+        when(mongoTemplate.findById("create-order:key-1", IdempotencyRecord.class)).thenReturn(
+                IdempotencyRecord.builder()
+                        .id("create-order:key-1")
+                        .requestHash(requestHash)
+                        .status(IdempotencyRecord.COMPLETED)
+                        .responseBody(objectMapper.writeValueAsString(order("ORD-REMOTE")))
+                        .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                        .build());
+
+        OrderResponse response = idempotencyService.execute("create-order", "key-1", request,
+                OrderResponse.class, () -> fail("action must not run"));
+
+        assertEquals("ORD-REMOTE", response.getOrderId());
+    }
+
+    @Test
+    void execute_shouldReturnConflictWhileAnotherInstanceIsRunningTheRequest() {
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("duplicate"));
+        when(mongoTemplate.findById("create-order:key-1", IdempotencyRecord.class)).thenReturn(
+                IdempotencyRecord.builder().id("create-order:key-1").status(IdempotencyRecord.PENDING).build());
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> idempotencyService.execute("create-order", "key-1", request,
+                        OrderResponse.class, () -> order("ORD-1")));
+        assertEquals(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS, ex.getErrorCode());
+    }
+
+    @Test
+    void execute_shouldReleaseKeyWhenActionFails() {
+        assertThrows(ProductServiceException.class,
+                () -> idempotencyService.execute("create-order", "key-1", request, OrderResponse.class, () -> {
+                    throw new ProductServiceException(ErrorCode.OUT_OF_STOCK, "Insufficient stock");
+                }));
+
+        verify(mongoTemplate).remove(any(Query.class), eq(IdempotencyRecord.class));
+
+        OrderResponse retry = idempotencyService.execute("create-order", "key-1", request,
+                OrderResponse.class, () -> order("ORD-1"));
+        assertEquals("ORD-1", retry.getOrderId());
+    }
+}
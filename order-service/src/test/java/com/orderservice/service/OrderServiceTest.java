@@ -1,28 +1,37 @@
 package com.orderservice.service;
 
+import com.orderservice.client.ProductBatchResponse;
 import com.orderservice.client.ProductResponse;
 import com.orderservice.client.ProductServiceClient;
+import com.orderservice.client.ReserveItemRequest;
 import com.orderservice.dto.request.CreateOrderRequest;
 import com.orderservice.dto.request.OrderItemRequest;
 import com.orderservice.dto.response.OrderResponse;
 import com.orderservice.entity.Order;
 import com.orderservice.entity.OrderItem;
 import com.orderservice.entity.OrderStatus;
+import com.orderservice.exception.ErrorCode;
 import com.orderservice.exception.InvalidOrderStateException;
 import com.orderservice.exception.ProductServiceException;
 import com.orderservice.exception.ResourceNotFoundException;
 import com.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +49,12 @@ class OrderServiceTest {
     @InjectMocks
     private OrderService orderService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "batchSize", 100);
+        ReflectionTestUtils.setField(orderService, "maxConcurrency", 4);
+    }
+
     @Test
     void createOrder_shouldCalculateTotalsCorrectly() {
         String productId1 = UUID.randomUUID().toString();
@@ -63,8 +78,12 @@ class OrderServiceTest {
                 .active(true)
                 .build();
 
-        when(productServiceClient.getProduct(productId1)).thenReturn(product1);
-        when(productServiceClient.getProduct(productId2)).thenReturn(product2);
+        when(productServiceClient.getProductsBatch(List.of(productId1, productId2)))
+                .thenReturn(Mono.just(ProductBatchResponse.builder()
+                        .products(List.of(product1, product2))
+                        .missingIds(List.of())
+                        .build()));
+        when(productServiceClient.reserveInventoryBatch(anyList())).thenReturn(Mono.just(List.of()));
 
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
@@ -96,10 +115,16 @@ class OrderServiceTest {
 
         assertEquals(0, new BigDecimal("59.98").compareTo(response.getItems().get(0).getLineTotal()));
         assertEquals(0, new BigDecimal("149.97").compareTo(response.getItems().get(1).getLineTotal()));
+
+        verify(productServiceClient).reserveInventoryBatch(List.of(
+                ReserveItemRequest.builder().productId(productId1).qty(2).build(),
+                ReserveItemRequest.builder().productId(productId2).qty(3).build()));
+        verify(productServiceClient, never()).reserveInventory(anyString(), anyInt());
+        verify(productServiceClient, never()).getProduct(anyString());
     }
 
     @Test
-    void createOrder_shouldRollbackReservationsOnFailure() {
+    void createOrder_shouldNotSaveWhenBatchReservationFails() {
         String productId1 = UUID.randomUUID().toString();
         String productId2 = UUID.randomUUID().toString();
 
@@ -119,15 +144,16 @@ class OrderServiceTest {
                 .active(true)
                 .build();
 
-        when(productServiceClient.getProduct(productId1)).thenReturn(product1);
-        when(productServiceClient.getProduct(productId2)).thenReturn(product2);
+        when(productServiceClient.getProductsBatch(List.of(productId1, productId2)))
+                .thenReturn(Mono.just(ProductBatchResponse.builder()
+                        .products(List.of(product1, product2))
+                        .missingIds(List.of())
+                        .build()));
 
-        when(productServiceClient.reserveInventory(eq(productId1), eq(2)))
-                .thenReturn(new com.orderservice.client.InventoryResponse());
-        when(productServiceClient.reserveInventory(eq(productId2), eq(1)))
-                .thenThrow(new ProductServiceException(
-                        com.orderservice.exception.ErrorCode.OUT_OF_STOCK,
-                        "Insufficient stock for product: " + productId2));
+        when(productServiceClient.reserveInventoryBatch(anyList()))
+                .thenReturn(Mono.error(new ProductServiceException(
+                        ErrorCode.OUT_OF_STOCK,
+                        "Insufficient stock for product: " + productId2)));
 
         CreateOrderRequest request = CreateOrderRequest.builder()
                 .customerId("CUST-1001")
@@ -139,12 +165,44 @@ class OrderServiceTest {
 
         assertThrows(ProductServiceException.class, () -> orderService.createOrder(request));
 
-        verify(productServiceClient).releaseInventory(productId1, 2);
+        verify(productServiceClient, never()).releaseInventory(anyString(), anyInt());
         verify(orderRepository, never()).save(any(Order.class));
     }
 
     @Test
-    void createOrder_shouldRollbackWhenProductInactive() {
+    void createOrder_shouldReleaseReservationsWhenSaveFails() {
+        String productId = UUID.randomUUID().toString();
+
+        ProductResponse product = ProductResponse.builder()
+                .productId(productId)
+                .sku("SKU-001")
+                .name("Product 1")
+                .price(new BigDecimal("10.00"))
+                .active(true)
+                .build();
+
+        when(productServiceClient.getProductsBatch(List.of(productId)))
+                .thenReturn(Mono.just(ProductBatchResponse.builder()
+                        .products(List.of(product))
+                        .missingIds(List.of())
+                        .build()));
+        when(productServiceClient.reserveInventoryBatch(anyList())).thenReturn(Mono.just(List.of()));
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("write failed"));
+
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId("CUST-1001")
+                .items(List.of(OrderItemRequest.builder().productId(productId).quantity(4).build()))
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(request));
+
+        verify(productServiceClient).reserveInventoryBatch(List.of(
+                ReserveItemRequest.builder().productId(productId).qty(4).build()));
+        verify(productServiceClient).releaseInventory(productId, 4);
+    }
+
+    @Test
+    void createOrder_shouldNotReserveWhenProductInactive() {
         String productId1 = UUID.randomUUID().toString();
         String productId2 = UUID.randomUUID().toString();
 
@@ -164,8 +222,11 @@ class OrderServiceTest {
                 .active(false)
                 .build();
 
-        when(productServiceClient.getProduct(productId1)).thenReturn(product1);
-        when(productServiceClient.getProduct(productId2)).thenReturn(product2);
+        when(productServiceClient.getProductsBatch(List.of(productId1, productId2)))
+                .thenReturn(Mono.just(ProductBatchResponse.builder()
+                        .products(List.of(product1, product2))
+                        .missingIds(List.of())
+                        .build()));
 
         CreateOrderRequest request = CreateOrderRequest.builder()
                 .customerId("CUST-1001")
@@ -177,7 +238,124 @@ class OrderServiceTest {
 
         assertThrows(ProductServiceException.class, () -> orderService.createOrder(request));
 
-        verify(productServiceClient).releaseInventory(productId1, 2);
+        verify(productServiceClient, never()).reserveInventoryBatch(anyList());
+        verify(productServiceClient, never()).releaseInventory(anyString(), anyInt());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_shouldFailWhenProductMissingFromBatch() {
+        String productId = UUID.randomUUID().toString();
+
+        when(productServiceClient.getProductsBatch(List.of(productId)))
+                .thenReturn(Mono.just(ProductBatchResponse.builder()
+                        .products(List.of())
+                        .missingIds(List.of(productId))
+                        .build()));
+
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId("CUST-1001")
+                .items(List.of(OrderItemRequest.builder().productId(productId).quantity(1).build()))
+                .build();
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class,
+                () -> orderService.createOrder(request));
+        assertEquals(ErrorCode.PRODUCT_NOT_FOUND, ex.getErrorCode());
+
+        verify(productServiceClient, never()).reserveInventoryBatch(anyList());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_shouldFetchAndReserveBatchesConcurrentlyUpToCap() {
+        ReflectionTestUtils.setField(orderService, "batchSize", 2);
+        ReflectionTestUtils.setField(orderService, "maxConcurrency", 2);
+
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            items.add(OrderItemRequest.builder().productId("product-" + i).quantity(1).build());
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(productServiceClient.getProductsBatch(anyList())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            List<ProductResponse> products = ids.stream()
+                    .map(id -> ProductResponse.builder()
+                            .productId(id)
+                            .sku("SKU-" + id)
+                            .name("Product " + id)
+                            .price(new BigDecimal("5.00"))
+                            .active(true)
+                            .build())
+                    .toList();
+            return Mono.delay(Duration.ofMillis(50))
+                    .map(tick -> ProductBatchResponse.builder().products(products).missingIds(List.of()).build())
+                    .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doOnTerminate(inFlight::decrementAndGet);
+        });
+        when(productServiceClient.reserveInventoryBatch(anyList())).thenReturn(Mono.just(List.of()));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OrderResponse response = orderService.createOrder(CreateOrderRequest.builder()
+                .customerId("CUST-1001")
+                .items(items)
+                .build());
+
+        assertEquals(9, response.getItems().size());
+        assertEquals(0, new BigDecimal("45.00").compareTo(response.getOrderTotal()));
+        assertEquals(2, maxInFlight.get());
+        verify(productServiceClient, times(5)).getProductsBatch(anyList());
+        verify(productServiceClient, times(5)).reserveInventoryBatch(anyList());
+    }
+
+    @Test
+    void createOrder_shouldReleaseOtherBatchesWhenOneReservationBatchFails() {
+        ReflectionTestUtils.setField(orderService, "batchSize", 2);
+
+        List<OrderItemRequest> items = List.of(
+                OrderItemRequest.builder().productId("p1").quantity(1).build(),
+                OrderItemRequest.builder().productId("p2").quantity(2).build(),
+                OrderItemRequest.builder().productId("p3").quantity(3).build(),
+                OrderItemRequest.builder().productId("p4").quantity(4).build(),
+                OrderItemRequest.builder().productId("p5").quantity(5).build());
+
+        when(productServiceClient.getProductsBatch(anyList())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(0);
+            return Mono.just(ProductBatchResponse.builder()
+                    .products(ids.stream()
+                            .map(id -> ProductResponse.builder()
+                                    .productId(id)
+                                    .sku("SKU-" + id)
+                                    .name("Product " + id)
+                                    .price(BigDecimal.ONE)
+                                    .active(true)
+                                    .build())
+                            .toList())
+                    .missingIds(List.of())
+                    .build());
+        });
+        when(productServiceClient.reserveInventoryBatch(anyList())).thenAnswer(invocation -> {
+            List<ReserveItemRequest> batch = invocation.getArgument(0);
+            if (batch.get(0).getProductId().equals("p3")) {
+                return Mono.error(new ProductServiceException(ErrorCode.OUT_OF_STOCK,
+                        "Insufficient stock for product: p4"));
+            }
+            return Mono.delay(Duration.ofMillis(20)).thenReturn(List.of());
+        });
+
+        ProductServiceException ex = assertThrows(ProductServiceException.class,
+                () -> orderService.createOrder(CreateOrderRequest.builder()
+                        .customerId("CUST-1001")
+                        .items(items)
+                        .build()));
+        assertEquals(ErrorCode.OUT_OF_STOCK, ex.getErrorCode());
+
+        verify(productServiceClient).releaseInventory("p1", 1);
+        verify(productServiceClient).releaseInventory("p2", 2);
+        verify(productServiceClient).releaseInventory("p5", 5);
+        verify(productServiceClient, never()).releaseInventory("p3", 3);
+        verify(productServiceClient, never()).releaseInventory("p4", 4);
         verify(orderRepository, never()).save(any(Order.class));
     }
 
@@ -4,9 +4,12 @@ import com.paymentservice.dto.request.CreatePaymentRequest;
 import com.paymentservice.dto.request.PaymentFailureRequest;
 import com.paymentservice.dto.request.PaymentRefundRequest;
 import com.paymentservice.dto.request.PaymentSuccessRequest;
+import com.paymentservice.dto.request.PaymentTransitionBatchRequest;
 import com.paymentservice.dto.response.PageResponse;
 import com.paymentservice.dto.response.PaymentResponse;
+import com.paymentservice.dto.response.PaymentTransitionBatchResponse;
 import com.paymentservice.entity.PaymentStatus;
+import com.paymentservice.service.IdempotencyService;
 import com.paymentservice.service.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,13 +29,18 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(summary = "Create a new payment",
-            description = "Creates a new payment in INITIATED status for the given order")
+            description = "Creates a new payment in INITIATED status for the given order. "
+                    + "Retries with the same Idempotency-Key return the first response instead of creating another payment")
     public ResponseEntity<PaymentResponse> createPayment(
+            @Parameter(description = "Client-generated key that makes retries safe")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody CreatePaymentRequest request) {
-        PaymentResponse response = paymentService.createPayment(request);
+        PaymentResponse response = idempotencyService.execute("create-payment", idempotencyKey, request,
+                PaymentResponse.class, () -> paymentService.createPayment(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -99,6 +107,15 @@ public class PaymentController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/transitions/batch")
+    @Operation(summary = "Apply payment status transitions in bulk",
+            description = "Applies settlement results as unordered conditional updates and reports an outcome per item")
+    public ResponseEntity<PaymentTransitionBatchResponse> applyTransitions(
+            @Valid @RequestBody PaymentTransitionBatchRequest request) {
+        PaymentTransitionBatchResponse response = paymentService.applyTransitions(request.getItems());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/order/{orderId}")
     @Operation(summary = "Get payments by order ID",
             description = "Retrieves all payments for a given order")
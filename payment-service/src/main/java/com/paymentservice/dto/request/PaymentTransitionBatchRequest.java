@@ -0,0 +1,23 @@
+package com.paymentservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTransitionBatchRequest {
+
+    @NotEmpty(message = "At least one transition is required")
+    @Size(max = 10000, message = "At most 10000 transitions are allowed per batch")
+    @Valid
+    private List<PaymentTransitionItem> items;
+}
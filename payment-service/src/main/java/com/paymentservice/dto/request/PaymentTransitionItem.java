@@ -0,0 +1,26 @@
+package com.paymentservice.dto.request;
+
+import com.paymentservice.entity.PaymentStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTransitionItem {
+
+    @NotBlank(message = "Payment ID is required")
+    private String paymentId;
+
+    @NotNull(message = "Target status is required")
+    private PaymentStatus targetStatus;
+
+    private String providerReference;
+
+    private String failureReason;
+}
@@ -0,0 +1,22 @@
+package com.paymentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTransitionBatchResponse {
+
+    private long received;
+    private long applied;
+    private long rejected;
+    private long durationMs;
+    private long transitionsPerSecond;
+    private List<PaymentTransitionResult> results;
+}
@@ -0,0 +1,23 @@
+package com.paymentservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentTransitionResult {
+
+    public static final String APPLIED = "APPLIED";
+
+    private String paymentId;
+    private String targetStatus;
+    private String outcome;
+    private String currentStatus;
+    private String message;
+}
@@ -4,6 +4,8 @@ public enum ErrorCode {
     PAYMENT_NOT_FOUND,
     INVALID_PAYMENT_STATE,
     DUPLICATE_PAYMENT,
+    IDEMPOTENCY_KEY_REUSED,
+    IDEMPOTENT_REQUEST_IN_PROGRESS,
     VALIDATION_ERROR,
     INTERNAL_ERROR
 }
@@ -4,10 +4,14 @@ import com.paymentservice.dto.request.CreatePaymentRequest;
 import com.paymentservice.dto.request.PaymentFailureRequest;
 import com.paymentservice.dto.request.PaymentRefundRequest;
 import com.paymentservice.dto.request.PaymentSuccessRequest;
+import com.paymentservice.dto.request.PaymentTransitionItem;
 import com.paymentservice.dto.response.PageResponse;
 import com.paymentservice.dto.response.PaymentResponse;
+import com.paymentservice.dto.response.PaymentTransitionBatchResponse;
+import com.paymentservice.dto.response.PaymentTransitionResult;
 import com.paymentservice.entity.Payment;
 import com.paymentservice.entity.PaymentStatus;
+import com.paymentservice.exception.ConflictException;
 import com.paymentservice.exception.ErrorCode;
 import com.paymentservice.exception.InvalidPaymentStateException;
 import com.paymentservice.exception.ResourceNotFoundException;
@@ -15,14 +19,29 @@ import com.paymentservice.repository.PaymentRepository;
 import com.paymentservice.util.PaymentIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,29 +49,33 @@ import java.util.Set;
 public class PaymentService {
 
     private final PaymentRepository paymentRepository;
+    private final PaymentIdGenerator paymentIdGenerator;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int MAX_PAYMENT_ID_ATTEMPTS = 3;
 
     private static final Set<PaymentStatus> PROCESSABLE_STATUSES = Set.of(PaymentStatus.INITIATED);
     private static final Set<PaymentStatus> SUCCESS_ALLOWED_STATUSES = Set.of(PaymentStatus.INITIATED, PaymentStatus.PROCESSING);
     private static final Set<PaymentStatus> FAIL_ALLOWED_STATUSES = Set.of(PaymentStatus.INITIATED, PaymentStatus.PROCESSING);
     private static final Set<PaymentStatus> REFUND_ALLOWED_STATUSES = Set.of(PaymentStatus.SUCCESS);
+    private static final Map<PaymentStatus, Set<PaymentStatus>> ALLOWED_FROM_STATUSES = Map.of(
+            PaymentStatus.PROCESSING, PROCESSABLE_STATUSES,
+            PaymentStatus.SUCCESS, SUCCESS_ALLOWED_STATUSES,
+            PaymentStatus.FAILED, FAIL_ALLOWED_STATUSES,
+            PaymentStatus.REFUNDED, REFUND_ALLOWED_STATUSES);
 
     public PaymentResponse createPayment(CreatePaymentRequest request) {
         log.info("Creating payment for order: {}, customer: {}", request.getOrderId(), request.getCustomerId());
 
-        String paymentId = generateUniquePaymentId();
-
-        Payment payment = Payment.builder()
-                .paymentId(paymentId)
+        Payment savedPayment = insertWithUniquePaymentId(Payment.builder()
                 .orderId(request.getOrderId())
                 .customerId(request.getCustomerId())
                 .amount(request.getAmount())
                 .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
                 .method(request.getMethod())
                 .status(PaymentStatus.INITIATED)
-                .build();
-
-        Payment savedPayment = paymentRepository.save(payment);
-        log.info("Payment created: {} for order: {}", paymentId, request.getOrderId());
+                .build());
+        log.info("Payment created: {} for order: {}", savedPayment.getPaymentId(), request.getOrderId());
 
         return mapToResponse(savedPayment);
     }
@@ -89,12 +112,7 @@ public class PaymentService {
 
     public PaymentResponse processPayment(String paymentId) {
         log.info("Processing payment: {}", paymentId);
-        Payment payment = findPaymentByPaymentId(paymentId);
-
-        validateStateTransition(payment, PROCESSABLE_STATUSES, PaymentStatus.PROCESSING);
-
-        payment.setStatus(PaymentStatus.PROCESSING);
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = transition(paymentId, PROCESSABLE_STATUSES, PaymentStatus.PROCESSING, new Update());
 
         log.info("Payment {} moved to PROCESSING", paymentId);
         return mapToResponse(savedPayment);
@@ -102,16 +120,12 @@ public class PaymentService {
 
     public PaymentResponse markPaymentSuccess(String paymentId, PaymentSuccessRequest request) {
         log.info("Marking payment success: {}", paymentId);
-        Payment payment = findPaymentByPaymentId(paymentId);
-
-        validateStateTransition(payment, SUCCESS_ALLOWED_STATUSES, PaymentStatus.SUCCESS);
-
-        payment.setStatus(PaymentStatus.SUCCESS);
+        Update update = new Update();
         if (request != null && request.getProviderReference() != null) {
-            payment.setProviderReference(request.getProviderReference());
+            update.set("providerReference", request.getProviderReference());
         }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = transition(paymentId, SUCCESS_ALLOWED_STATUSES, PaymentStatus.SUCCESS, update);
         log.info("Payment {} marked as SUCCESS", paymentId);
 
         // Future: publish PAYMENT_SUCCESS event for order confirmation
@@ -120,16 +134,12 @@ public class PaymentService {
 
     public PaymentResponse markPaymentFailed(String paymentId, PaymentFailureRequest request) {
         log.info("Marking payment failed: {}", paymentId);
-        Payment payment = findPaymentByPaymentId(paymentId);
-
-        validateStateTransition(payment, FAIL_ALLOWED_STATUSES, PaymentStatus.FAILED);
-
-        payment.setStatus(PaymentStatus.FAILED);
+        Update update = new Update();
         if (request != null && request.getFailureReason() != null) {
-            payment.setFailureReason(request.getFailureReason());
+            update.set("failureReason", request.getFailureReason());
         }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = transition(paymentId, FAIL_ALLOWED_STATUSES, PaymentStatus.FAILED, update);
         log.info("Payment {} marked as FAILED", paymentId);
 
         // Future: publish PAYMENT_FAILED event
@@ -138,22 +148,73 @@ public class PaymentService {
 
     public PaymentResponse refundPayment(String paymentId, PaymentRefundRequest request) {
         log.info("Refunding payment: {}", paymentId);
-        Payment payment = findPaymentByPaymentId(paymentId);
-
-        validateStateTransition(payment, REFUND_ALLOWED_STATUSES, PaymentStatus.REFUNDED);
-
-        payment.setStatus(PaymentStatus.REFUNDED);
+        Update update = new Update();
         if (request != null && request.getReason() != null) {
-            payment.setFailureReason("Refund: " + request.getReason());
+            update.set("failureReason", "Refund: " + request.getReason());
         }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = transition(paymentId, REFUND_ALLOWED_STATUSES, PaymentStatus.REFUNDED, update);
         log.info("Payment {} marked as REFUNDED", paymentId);
 
         // Future: publish PAYMENT_REFUNDED event
         return mapToResponse(savedPayment);
     }
 
+    public PaymentTransitionBatchResponse applyTransitions(List<PaymentTransitionItem> items) {
+        log.info("Applying batch of {} payment transitions", items.size());
+        long startTime = System.currentTimeMillis();
+        // Mongo stores milliseconds, so a truncated stamp reads back unchanged and identifies this batch's writes
+        Instant batchStamp = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        PaymentTransitionResult[] results = new PaymentTransitionResult[items.size()];
+        List<Integer> queued = new ArrayList<>(items.size());
+        Set<String> seenPaymentIds = new HashSet<>();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class);
+
+        for (int i = 0; i < items.size(); i++) {
+            PaymentTransitionItem item = items.get(i);
+            Set<PaymentStatus> allowedFromStatuses = ALLOWED_FROM_STATUSES.get(item.getTargetStatus());
+            if (allowedFromStatuses == null) {
+                results[i] = rejectedTransition(item, ErrorCode.INVALID_PAYMENT_STATE, null,
+                        "Payments cannot be moved to " + item.getTargetStatus());
+            } else if (!seenPaymentIds.add(item.getPaymentId())) {
+                // Unordered writes to the same payment would race each other, so only the first one is applied
+                results[i] = rejectedTransition(item, ErrorCode.VALIDATION_ERROR, null,
+                        "Duplicate payment ID in batch: " + item.getPaymentId());
+            } else {
+                bulkOps.updateOne(
+                        new Query(Criteria.where("paymentId").is(item.getPaymentId())
+                                .and("status").in(allowedFromStatuses)),
+                        transitionUpdate(item, batchStamp));
+                queued.add(i);
+            }
+        }
+
+        if (!queued.isEmpty()) {
+            int matched = bulkOps.execute().getMatchedCount();
+            if (matched == queued.size()) {
+                queued.forEach(i -> results[i] = appliedTransition(items.get(i)));
+            } else {
+                resolveTransitionOutcomes(items, queued, batchStamp, results);
+            }
+        }
+
+        long applied = Arrays.stream(results)
+                .filter(result -> PaymentTransitionResult.APPLIED.equals(result.getOutcome()))
+                .count();
+        long durationMs = System.currentTimeMillis() - startTime;
+        log.info("Applied {} of {} payment transitions in {}ms", applied, items.size(), durationMs);
+
+        return PaymentTransitionBatchResponse.builder()
+                .received(items.size())
+                .applied(applied)
+                .rejected(items.size() - applied)
+                .durationMs(durationMs)
+                .transitionsPerSecond(durationMs > 0 ? items.size() * 1000L / durationMs : items.size())
+                .results(Arrays.asList(results))
+                .build();
+    }
+
     public List<PaymentResponse> getPaymentsByOrderId(String orderId) {
         log.info("Fetching payments for order: {}", orderId);
         List<Payment> payments = paymentRepository.findByOrderId(orderId);
@@ -174,6 +235,80 @@ public class PaymentService {
                         "Payment not found with ID: " + paymentId));
     }
 
+    private Payment transition(String paymentId, Set<PaymentStatus> allowedFromStatuses,
+                               PaymentStatus targetStatus, Update update) {
+        Query query = new Query(Criteria.where("paymentId").is(paymentId).and("status").in(allowedFromStatuses));
+        update.set("status", targetStatus).set("updatedAt", Instant.now());
+
+        Payment updatedPayment = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Payment.class);
+
+        if (updatedPayment == null) {
+            Payment payment = findPaymentByPaymentId(paymentId);
+            validateStateTransition(payment, allowedFromStatuses, targetStatus);
+            // Only reachable when another transition changed the status between the update and this read
+            throw new InvalidPaymentStateException(
+                    "Payment " + paymentId + " changed concurrently and cannot move to " + targetStatus);
+        }
+        return updatedPayment;
+    }
+
+    private Update transitionUpdate(PaymentTransitionItem item, Instant batchStamp) {
+        Update update = new Update().set("status", item.getTargetStatus()).set("updatedAt", batchStamp);
+        if (item.getTargetStatus() == PaymentStatus.SUCCESS && item.getProviderReference() != null) {
+            update.set("providerReference", item.getProviderReference());
+        } else if (item.getTargetStatus() == PaymentStatus.FAILED && item.getFailureReason() != null) {
+            update.set("failureReason", item.getFailureReason());
+        } else if (item.getTargetStatus() == PaymentStatus.REFUNDED && item.getFailureReason() != null) {
+            update.set("failureReason", "Refund: " + item.getFailureReason());
+        }
+        return update;
+    }
+
+    private void resolveTransitionOutcomes(List<PaymentTransitionItem> items, List<Integer> queued,
+                                           Instant batchStamp, PaymentTransitionResult[] results) {
+        Query query = new Query(Criteria.where("paymentId")
+                .in(queued.stream().map(i -> items.get(i).getPaymentId()).toList()));
+        query.fields().include("paymentId", "status", "updatedAt");
+        Map<String, Payment> current = mongoTemplate.find(query, Payment.class).stream()
+                .collect(Collectors.toMap(Payment::getPaymentId, Function.identity()));
+
+        for (int i : queued) {
+            PaymentTransitionItem item = items.get(i);
+            Payment payment = current.get(item.getPaymentId());
+            if (payment == null) {
+                results[i] = rejectedTransition(item, ErrorCode.PAYMENT_NOT_FOUND, null,
+                        "Payment not found with ID: " + item.getPaymentId());
+            } else if (payment.getStatus() == item.getTargetStatus() && batchStamp.equals(payment.getUpdatedAt())) {
+                results[i] = appliedTransition(item);
+            } else {
+                results[i] = rejectedTransition(item, ErrorCode.INVALID_PAYMENT_STATE, payment.getStatus(),
+                        "Cannot transition payment " + item.getPaymentId() +
+                        " from " + payment.getStatus() + " to " + item.getTargetStatus());
+            }
+        }
+    }
+
+    private PaymentTransitionResult appliedTransition(PaymentTransitionItem item) {
+        return PaymentTransitionResult.builder()
+                .paymentId(item.getPaymentId())
+                .targetStatus(item.getTargetStatus().name())
+                .outcome(PaymentTransitionResult.APPLIED)
+                .currentStatus(item.getTargetStatus().name())
+                .build();
+    }
+
+    private PaymentTransitionResult rejectedTransition(PaymentTransitionItem item, ErrorCode errorCode,
+                                                       PaymentStatus currentStatus, String message) {
+        return PaymentTransitionResult.builder()
+                .paymentId(item.getPaymentId())
+                .targetStatus(item.getTargetStatus().name())
+                .outcome(errorCode.name())
+                .currentStatus(currentStatus != null ? currentStatus.name() : null)
+                .message(message)
+                .build();
+    }
+
     private void validateStateTransition(Payment payment, Set<PaymentStatus> allowedFromStatuses,
                                           PaymentStatus targetStatus) {
         if (!allowedFromStatuses.contains(payment.getStatus())) {
@@ -183,17 +318,23 @@ public class PaymentService {
         }
     }
 
-    private String generateUniquePaymentId() {
-        String paymentId;
-        int attempts = 0;
-        do {
-            paymentId = PaymentIdGenerator.generate();
-            attempts++;
-            if (attempts > 10) {
-                throw new RuntimeException("Unable to generate unique payment ID after 10 attempts");
+    private Payment insertWithUniquePaymentId(Payment payment) {
+        // Generated IDs are unique per node, so the unique index only rejects one when two nodes share a node ID
+        for (int attempt = 1; ; attempt++) {
+            payment.setPaymentId(paymentIdGenerator.generate());
+            try {
+                return paymentRepository.insert(payment);
+            } catch (DuplicateKeyException e) {
+                if (e.getMessage() != null && !e.getMessage().contains("paymentId")) {
+                    throw e;
+                }
+                if (attempt >= MAX_PAYMENT_ID_ATTEMPTS) {
+                    throw new ConflictException(ErrorCode.DUPLICATE_PAYMENT,
+                            "Unable to allocate a unique payment ID for order: " + payment.getOrderId());
+                }
+                log.warn("Payment ID {} already exists, retrying", payment.getPaymentId());
             }
-        } while (paymentRepository.existsByPaymentId(paymentId));
-        return paymentId;
+        }
     }
 
     private Page<Payment> findPaymentsWithFilters(String customerId, String orderId,
@@ -1,16 +1,104 @@
 package com.paymentservice.util;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class PaymentIdGenerator {
+
+    // Snowflake layout: 41 bits of milliseconds since EPOCH_MS, 10 bits of node ID, 12 bits of sequence
+    static final long EPOCH_MS = 1704067200000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "PAY-";
+    private static final int ENCODED_LENGTH = 13;
+    // Crockford base32 is in ASCII order, so IDs of equal length sort by creation time
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // StatefulSet pods are named <set>-<ordinal>, which is stable and distinct per replica
+    private static final Pattern POD_ORDINAL = Pattern.compile("-(\\d+)$");
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // Packed (timestamp << SEQUENCE_BITS | sequence) of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public PaymentIdGenerator(@Value("${app.payment.node-id:-1}") int nodeId, Environment environment) {
+        this(nodeId < 0 ? nodeIdFromHostname(hostname(environment)) : nodeId);
+    }
+
+    public PaymentIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
 
-public final class PaymentIdGenerator {
+    PaymentIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Payment node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
 
-    private static final AtomicLong COUNTER = new AtomicLong(System.currentTimeMillis() % 100000);
+    // Two replicas with the same node ID can issue the same payment ID, so an unset node ID is never guessed
+    static int nodeIdFromHostname(String hostname) {
+        Matcher matcher = POD_ORDINAL.matcher(hostname);
+        if (!matcher.find() || matcher.group(1).length() > 4 || Integer.parseInt(matcher.group(1)) > MAX_NODE_ID) {
+            throw new IllegalStateException("app.payment.node-id is not set and hostname '" + hostname
+                    + "' has no pod ordinal between 0 and " + MAX_NODE_ID + "; set a distinct node ID per replica");
+        }
+        int nodeId = Integer.parseInt(matcher.group(1));
+        log.info("app.payment.node-id is not set, using node ID {} from hostname {}", nodeId, hostname);
+        return nodeId;
+    }
+
+    private static String hostname(Environment environment) {
+        String hostname = environment.getProperty("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "";
+        }
+    }
 
-    private PaymentIdGenerator() {
+    public String generate() {
+        long id = nextId();
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
     }
 
-    public static String generate() {
-        long next = COUNTER.incrementAndGet();
-        return String.format("PAY-%06d", next);
+    long nextId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MS;
+            long last = lastState.get();
+            // A full sequence or a clock that moved backwards borrows from the last timestamp, keeping IDs unique
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | sequence;
+            }
+        }
     }
 }
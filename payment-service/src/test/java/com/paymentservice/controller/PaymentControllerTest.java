@@ -5,14 +5,20 @@ import com.paymentservice.dto.request.CreatePaymentRequest;
 import com.paymentservice.dto.request.PaymentFailureRequest;
 import com.paymentservice.dto.request.PaymentRefundRequest;
 import com.paymentservice.dto.request.PaymentSuccessRequest;
+import com.paymentservice.dto.request.PaymentTransitionBatchRequest;
+import com.paymentservice.dto.request.PaymentTransitionItem;
 import com.paymentservice.dto.response.PageResponse;
 import com.paymentservice.dto.response.PaymentResponse;
+import com.paymentservice.dto.response.PaymentTransitionBatchResponse;
+import com.paymentservice.dto.response.PaymentTransitionResult;
 import com.paymentservice.entity.PaymentMethod;
 import com.paymentservice.entity.PaymentStatus;
 import com.paymentservice.exception.ErrorCode;
 import com.paymentservice.exception.InvalidPaymentStateException;
 import com.paymentservice.exception.ResourceNotFoundException;
+import com.paymentservice.service.IdempotencyService;
 import com.paymentservice.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,8 +30,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +50,15 @@ class PaymentControllerTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyService.execute(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+    }
+
     private PaymentResponse sampleResponse() {
         return PaymentResponse.builder()
                 .paymentId("PAY-000001")
@@ -78,6 +95,29 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.status").value("INITIATED"));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/payments - should pass Idempotency-Key to the idempotency service")
+    void shouldCreatePaymentWithIdempotencyKey() throws Exception {
+        CreatePaymentRequest request = CreatePaymentRequest.builder()
+                .orderId("ORD-1001")
+                .customerId("CUST-001")
+                .amount(BigDecimal.valueOf(149.99))
+                .method(PaymentMethod.CREDIT_CARD)
+                .build();
+
+        when(paymentService.createPayment(any(CreatePaymentRequest.class))).thenReturn(sampleResponse());
+
+        mockMvc.perform(post("/api/v1/payments")
+                        .header("Idempotency-Key", "retry-key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.paymentId").value("PAY-000001"));
+
+        verify(idempotencyService).execute(eq("create-payment"), eq("retry-key-1"),
+                any(CreatePaymentRequest.class), eq(PaymentResponse.class), any());
+    }
+
     @Test
     @DisplayName("POST /api/v1/payments - should fail validation with missing fields")
     void shouldFailValidationWithMissingFields() throws Exception {
@@ -244,4 +284,49 @@ class PaymentControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.orderId").value("ORD-1001"));
     }
+
+    @Test
+    @DisplayName("POST /api/v1/payments/transitions/batch - should return per-item outcomes")
+    void shouldApplyTransitionBatch() throws Exception {
+        when(paymentService.applyTransitions(anyList())).thenReturn(PaymentTransitionBatchResponse.builder()
+                .received(2)
+                .applied(1)
+                .rejected(1)
+                .results(List.of(
+                        PaymentTransitionResult.builder().paymentId("PAY-000001").targetStatus("SUCCESS")
+                                .outcome(PaymentTransitionResult.APPLIED).currentStatus("SUCCESS").build(),
+                        PaymentTransitionResult.builder().paymentId("PAY-000002").targetStatus("SUCCESS")
+                                .outcome("PAYMENT_NOT_FOUND").message("Payment not found with ID: PAY-000002").build()))
+                .build());
+
+        PaymentTransitionBatchRequest request = PaymentTransitionBatchRequest.builder()
+                .items(List.of(
+                        PaymentTransitionItem.builder().paymentId("PAY-000001").targetStatus(PaymentStatus.SUCCESS)
+                                .providerReference("TXN-1").build(),
+                        PaymentTransitionItem.builder().paymentId("PAY-000002").targetStatus(PaymentStatus.SUCCESS)
+                                .build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/payments/transitions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("PAYMENT_NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/payments/transitions/batch - should fail validation for empty or incomplete items")
+    void shouldFailTransitionBatchValidation() throws Exception {
+        mockMvc.perform(post("/api/v1/payments/transitions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/v1/payments/transitions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"paymentId\":\"PAY-000001\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,168 @@
+package com.paymentservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paymentservice.dto.request.CreatePaymentRequest;
+import com.paymentservice.dto.response.PaymentResponse;
+import com.paymentservice.entity.IdempotencyRecord;
+import com.paymentservice.entity.PaymentMethod;
+import com.paymentservice.exception.ConflictException;
+import com.paymentservice.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private IdempotencyService idempotencyService;
+
+    private final CreatePaymentRequest request = CreatePaymentRequest.builder()
+            .orderId("ORD-1001")
+            .customerId("CUST-001")
+            .amount(BigDecimal.valueOf(149.99))
+            .method(PaymentMethod.CREDIT_CARD)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(mongoTemplate, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Duration.ofHours(24), Duration.ofSeconds(60), 100);
+    }
+
+    private PaymentResponse payment(String paymentId) {
+        return PaymentResponse.builder().paymentId(paymentId).orderId("ORD-1001").createdAt(Instant.now()).build();
+    }
+
+    @Test
+    @DisplayName("Should create the payment once and replay it for a retried key")
+    void shouldReplayFirstResponseForRetriedKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        PaymentResponse first = idempotencyService.execute("create-payment", "key-1", request,
+                PaymentResponse.class, () -> payment("PAY-" + calls.incrementAndGet()));
+        PaymentResponse retry = idempotencyService.execute("create-payment", "key-1", request,
+                PaymentResponse.class, () -> payment("PAY-" + calls.incrementAndGet()));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(first.getPaymentId()).isEqualTo("PAY-1");
+        assertThat(retry.getPaymentId()).isEqualTo("PAY-1");
+        verify(mongoTemplate).insert(any(IdempotencyRecord.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different request body")
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        idempotencyService.execute("create-payment", "key-1", request, PaymentResponse.class, () -> payment("PAY-1"));
+
+        CreatePaymentRequest otherRequest = CreatePaymentRequest.builder()
+                .orderId("ORD-2002")
+                .customerId("CUST-001")
+                .amount(BigDecimal.TEN)
+                .method(PaymentMethod.CREDIT_CARD)
+                .build();
+
+        assertThatThrownBy(() -> idempotencyService.execute("create-payment", "key-1", otherRequest,
+                PaymentResponse.class, () -> payment("PAY-2")))
+                .isInstanceOf(ConflictException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    @DisplayName("Should coalesce a concurrent duplicate onto the in-flight request")
+    void shouldCoalesceConcurrentDuplicate() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<PaymentResponse> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("create-payment", "key-1", request, PaymentResponse.class, () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return payment("PAY-1");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<PaymentResponse> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("create-payment", "key-1", request, PaymentResponse.class, () -> {
+                    calls.incrementAndGet();
+                    return payment("PAY-2");
+                }));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getPaymentId()).isEqualTo("PAY-1");
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getPaymentId()).isEqualTo("PAY-1");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop waiting on an in-flight duplicate after the pending timeout")
+    void shouldTimeOutWaitingOnInFlightDuplicate() throws Exception {
+        IdempotencyService service = new IdempotencyService(mongoTemplate,
+                new ObjectMapper().registerModule(new JavaTimeModule()), Duration.ofHours(24), Duration.ofMillis(100), 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<PaymentResponse> first = CompletableFuture.supplyAsync(() ->
+                service.execute("create-payment", "key-1", request, PaymentResponse.class, () -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return payment("PAY-1");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.execute("create-payment", "key-1", request,
+                PaymentResponse.class, () -> payment("PAY-2")))
+                .isInstanceOf(ConflictException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getPaymentId()).isEqualTo("PAY-1");
+    }
+
+    @Test
+    @DisplayName("Should run the action directly when no key is sent")
+    void shouldRunActionDirectlyWithoutKey() {
+        PaymentResponse response = idempotencyService.execute("create-payment", " ", request,
+                PaymentResponse.class, () -> payment("PAY-1"));
+
+        assertThat(response.getPaymentId()).isEqualTo("PAY-1");
+        verifyNoInteractions(mongoTemplate);
+    }
+}
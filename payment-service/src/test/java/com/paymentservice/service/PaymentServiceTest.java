@@ -4,28 +4,46 @@ import com.paymentservice.dto.request.CreatePaymentRequest;
 import com.paymentservice.dto.request.PaymentFailureRequest;
 import com.paymentservice.dto.request.PaymentRefundRequest;
 import com.paymentservice.dto.request.PaymentSuccessRequest;
+import com.paymentservice.dto.request.PaymentTransitionItem;
 import com.paymentservice.dto.response.PageResponse;
 import com.paymentservice.dto.response.PaymentResponse;
+import com.paymentservice.dto.response.PaymentTransitionBatchResponse;
+import com.paymentservice.dto.response.PaymentTransitionResult;
 import com.paymentservice.entity.Payment;
 import com.paymentservice.entity.PaymentMethod;
 import com.paymentservice.entity.PaymentStatus;
+import com.mongodb.bulk.BulkWriteResult;
+import com.paymentservice.exception.ConflictException;
+import com.paymentservice.exception.ErrorCode;
 import com.paymentservice.exception.InvalidPaymentStateException;
 import com.paymentservice.exception.ResourceNotFoundException;
 import com.paymentservice.repository.PaymentRepository;
+import com.paymentservice.util.PaymentIdGenerator;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +51,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +60,12 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private PaymentIdGenerator paymentIdGenerator = new PaymentIdGenerator(1);
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -62,6 +87,28 @@ class PaymentServiceTest {
                 .build();
     }
 
+    // Applies the conditional update to samplePayment when its status is in the query's $in set
+    private void stubTransition() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Payment.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            Document statusCriteria = (Document) query.getQueryObject().get("status");
+            if (!((Collection<?>) statusCriteria.get("$in")).contains(samplePayment.getStatus())) {
+                return null;
+            }
+            Document set = (Document) update.getUpdateObject().get("$set");
+            samplePayment.setStatus((PaymentStatus) set.get("status"));
+            if (set.containsKey("providerReference")) {
+                samplePayment.setProviderReference((String) set.get("providerReference"));
+            }
+            if (set.containsKey("failureReason")) {
+                samplePayment.setFailureReason((String) set.get("failureReason"));
+            }
+            return samplePayment;
+        });
+    }
+
     @Nested
     @DisplayName("Create Payment")
     class CreatePaymentTests {
@@ -77,8 +124,7 @@ class PaymentServiceTest {
                     .method(PaymentMethod.CREDIT_CARD)
                     .build();
 
-            when(paymentRepository.existsByPaymentId(anyString())).thenReturn(false);
-            when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            when(paymentRepository.insert(any(Payment.class))).thenAnswer(invocation -> {
                 Payment payment = invocation.getArgument(0);
                 payment.setId("mongo-id-1");
                 payment.setCreatedAt(Instant.now());
@@ -97,7 +143,53 @@ class PaymentServiceTest {
             assertThat(response.getMethod()).isEqualTo("CREDIT_CARD");
             assertThat(response.getStatus()).isEqualTo("INITIATED");
 
-            verify(paymentRepository).save(any(Payment.class));
+            verify(paymentRepository).insert(any(Payment.class));
+            verify(paymentRepository, never()).existsByPaymentId(anyString());
+        }
+
+        @Test
+        @DisplayName("Should retry with a new payment ID on duplicate key")
+        void shouldRetryOnDuplicatePaymentId() {
+            CreatePaymentRequest request = CreatePaymentRequest.builder()
+                    .orderId("ORD-1001")
+                    .customerId("CUST-001")
+                    .amount(BigDecimal.valueOf(20))
+                    .method(PaymentMethod.UPI)
+                    .build();
+
+            List<String> attemptedIds = new ArrayList<>();
+            when(paymentRepository.insert(any(Payment.class))).thenAnswer(invocation -> {
+                Payment payment = invocation.getArgument(0);
+                attemptedIds.add(payment.getPaymentId());
+                if (attemptedIds.size() == 1) {
+                    throw new DuplicateKeyException("E11000 duplicate key error collection: paymentdb.payments "
+                            + "index: paymentId dup key: { paymentId: \"" + payment.getPaymentId() + "\" }");
+                }
+                return payment;
+            });
+
+            PaymentResponse response = paymentService.createPayment(request);
+
+            assertThat(attemptedIds).hasSize(2).doesNotHaveDuplicates();
+            assertThat(response.getPaymentId()).isEqualTo(attemptedIds.get(1));
+        }
+
+        @Test
+        @DisplayName("Should give up after repeated duplicate payment IDs")
+        void shouldFailAfterRepeatedDuplicatePaymentIds() {
+            CreatePaymentRequest request = CreatePaymentRequest.builder()
+                    .orderId("ORD-1001")
+                    .customerId("CUST-001")
+                    .amount(BigDecimal.valueOf(20))
+                    .method(PaymentMethod.UPI)
+                    .build();
+
+            when(paymentRepository.insert(any(Payment.class)))
+                    .thenThrow(new DuplicateKeyException("E11000 duplicate key error index: paymentId"));
+
+            assertThatThrownBy(() -> paymentService.createPayment(request))
+                    .isInstanceOf(ConflictException.class);
+            verify(paymentRepository, times(3)).insert(any(Payment.class));
         }
     }
 
@@ -136,13 +228,36 @@ class PaymentServiceTest {
         @DisplayName("Should process payment from INITIATED")
         void shouldProcessPaymentFromInitiated() {
             samplePayment.setStatus(PaymentStatus.INITIATED);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentResponse response = paymentService.processPayment("PAY-000001");
 
             assertThat(response.getStatus()).isEqualTo("PROCESSING");
-            verify(paymentRepository).save(any(Payment.class));
+            verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                    any(FindAndModifyOptions.class), eq(Payment.class));
+            verify(paymentRepository, never()).findByPaymentId(anyString());
+            verify(paymentRepository, never()).save(any(Payment.class));
+        }
+
+        @Test
+        @DisplayName("Should reject process when status changed concurrently")
+        void shouldRejectProcessWhenStatusChangedConcurrently() {
+            // The conditional update missed, but the status had already moved back into an allowed one on re-read
+            samplePayment.setStatus(PaymentStatus.INITIATED);
+            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
+
+            assertThatThrownBy(() -> paymentService.processPayment("PAY-000001"))
+                    .isInstanceOf(InvalidPaymentStateException.class)
+                    .hasMessageContaining("concurrently");
+        }
+
+        @Test
+        @DisplayName("Should throw not found when processing unknown payment")
+        void shouldThrowNotFoundWhenProcessingUnknownPayment() {
+            when(paymentRepository.findByPaymentId("PAY-999999")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> paymentService.processPayment("PAY-999999"))
+                    .isInstanceOf(ResourceNotFoundException.class);
         }
 
         @Test
@@ -175,8 +290,7 @@ class PaymentServiceTest {
         @DisplayName("Should mark payment success from INITIATED")
         void shouldMarkSuccessFromInitiated() {
             samplePayment.setStatus(PaymentStatus.INITIATED);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentSuccessRequest request = PaymentSuccessRequest.builder()
                     .providerReference("TXN-ABC-12345")
@@ -192,8 +306,7 @@ class PaymentServiceTest {
         @DisplayName("Should mark payment success from PROCESSING")
         void shouldMarkSuccessFromProcessing() {
             samplePayment.setStatus(PaymentStatus.PROCESSING);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentResponse response = paymentService.markPaymentSuccess("PAY-000001", null);
 
@@ -229,8 +342,7 @@ class PaymentServiceTest {
         @DisplayName("Should mark payment failed from INITIATED")
         void shouldMarkFailedFromInitiated() {
             samplePayment.setStatus(PaymentStatus.INITIATED);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentFailureRequest request = PaymentFailureRequest.builder()
                     .failureReason("Card declined")
@@ -246,8 +358,7 @@ class PaymentServiceTest {
         @DisplayName("Should mark payment failed from PROCESSING")
         void shouldMarkFailedFromProcessing() {
             samplePayment.setStatus(PaymentStatus.PROCESSING);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentResponse response = paymentService.markPaymentFailed("PAY-000001", null);
 
@@ -273,8 +384,7 @@ class PaymentServiceTest {
         @DisplayName("Should refund payment from SUCCESS")
         void shouldRefundFromSuccess() {
             samplePayment.setStatus(PaymentStatus.SUCCESS);
-            when(paymentRepository.findByPaymentId("PAY-000001")).thenReturn(Optional.of(samplePayment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(samplePayment);
+            stubTransition();
 
             PaymentRefundRequest request = PaymentRefundRequest.builder()
                     .reason("Customer cancellation")
@@ -327,6 +437,97 @@ class PaymentServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Batch Transitions")
+    class BatchTransitionTests {
+
+        @Mock
+        private BulkOperations bulkOperations;
+
+        @BeforeEach
+        void setUpBulkOperations() {
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)).thenReturn(bulkOperations);
+        }
+
+        private PaymentTransitionItem item(String paymentId, PaymentStatus targetStatus) {
+            return PaymentTransitionItem.builder().paymentId(paymentId).targetStatus(targetStatus).build();
+        }
+
+        @Test
+        @DisplayName("Should apply every transition when all conditional updates match")
+        void shouldApplyAllTransitionsWhenAllMatch() {
+            when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()));
+
+            PaymentTransitionBatchResponse response = paymentService.applyTransitions(List.of(
+                    PaymentTransitionItem.builder().paymentId("PAY-000001").targetStatus(PaymentStatus.SUCCESS)
+                            .providerReference("TXN-1").build(),
+                    PaymentTransitionItem.builder().paymentId("PAY-000002").targetStatus(PaymentStatus.FAILED)
+                            .failureReason("Card declined").build()));
+
+            assertThat(response.getReceived()).isEqualTo(2);
+            assertThat(response.getApplied()).isEqualTo(2);
+            assertThat(response.getRejected()).isZero();
+            assertThat(response.getResults()).extracting(PaymentTransitionResult::getOutcome)
+                    .containsOnly(PaymentTransitionResult.APPLIED);
+
+            ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+            verify(bulkOperations, times(2)).updateOne(any(Query.class), updates.capture());
+            assertThat(updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class))
+                    .containsEntry("providerReference", "TXN-1");
+            assertThat(updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class))
+                    .containsEntry("failureReason", "Card declined");
+            verify(mongoTemplate, never()).find(any(Query.class), eq(Payment.class));
+        }
+
+        @Test
+        @DisplayName("Should report per-item outcomes when some updates do not match")
+        void shouldResolveOutcomesWhenSomeUpdatesMiss() {
+            ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+            when(bulkOperations.updateOne(any(Query.class), updates.capture())).thenReturn(bulkOperations);
+            when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+            when(mongoTemplate.find(any(Query.class), eq(Payment.class))).thenAnswer(invocation -> {
+                Instant batchStamp = (Instant) updates.getValue().getUpdateObject().get("$set", Document.class)
+                        .get("updatedAt");
+                return List.of(
+                        Payment.builder().paymentId("PAY-000001").status(PaymentStatus.SUCCESS)
+                                .updatedAt(batchStamp).build(),
+                        Payment.builder().paymentId("PAY-000002").status(PaymentStatus.REFUNDED)
+                                .updatedAt(Instant.EPOCH).build());
+            });
+
+            PaymentTransitionBatchResponse response = paymentService.applyTransitions(List.of(
+                    item("PAY-000001", PaymentStatus.SUCCESS),
+                    item("PAY-000002", PaymentStatus.SUCCESS),
+                    item("PAY-000003", PaymentStatus.FAILED)));
+
+            assertThat(response.getApplied()).isEqualTo(1);
+            assertThat(response.getRejected()).isEqualTo(2);
+            assertThat(response.getResults()).extracting(PaymentTransitionResult::getOutcome).containsExactly(
+                    PaymentTransitionResult.APPLIED,
+                    ErrorCode.INVALID_PAYMENT_STATE.name(),
+                    ErrorCode.PAYMENT_NOT_FOUND.name());
+            assertThat(response.getResults().get(1).getCurrentStatus()).isEqualTo("REFUNDED");
+        }
+
+        @Test
+        @DisplayName("Should reject duplicate payment IDs and unreachable target statuses without writing them")
+        void shouldRejectDuplicatesAndUnreachableTargets() {
+            when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+            PaymentTransitionBatchResponse response = paymentService.applyTransitions(List.of(
+                    item("PAY-000001", PaymentStatus.PROCESSING),
+                    item("PAY-000001", PaymentStatus.SUCCESS),
+                    item("PAY-000002", PaymentStatus.INITIATED)));
+
+            assertThat(response.getApplied()).isEqualTo(1);
+            assertThat(response.getResults()).extracting(PaymentTransitionResult::getOutcome).containsExactly(
+                    PaymentTransitionResult.APPLIED,
+                    ErrorCode.VALIDATION_ERROR.name(),
+                    ErrorCode.INVALID_PAYMENT_STATE.name());
+            verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+        }
+    }
+
     @Nested
     @DisplayName("List Payments")
     class ListPaymentsTests {
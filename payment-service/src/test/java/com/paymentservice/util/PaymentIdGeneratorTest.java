@@ -0,0 +1,117 @@
+package com.paymentservice.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentIdGeneratorTest {
+
+    private static final long NOW = PaymentIdGenerator.EPOCH_MS + 86_400_000L;
+
+    @Test
+    @DisplayName("Should produce fixed-width IDs that sort in generation order")
+    void shouldProduceSortableIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        PaymentIdGenerator generator = new PaymentIdGenerator(7, clock::get);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(3);
+            }
+            ids.add(generator.generate());
+        }
+
+        assertThat(ids).allMatch(id -> id.matches("PAY-[0-9A-HJKMNP-TV-Z]{13}"));
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    @DisplayName("Should stay unique when the sequence overflows or the clock moves backwards")
+    void shouldStayUniqueWithoutClockProgress() {
+        AtomicLong clock = new AtomicLong(NOW);
+        PaymentIdGenerator generator = new PaymentIdGenerator(7, clock::get);
+
+        Set<Long> ids = new HashSet<>();
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            ids.add(id);
+            previous = id;
+        }
+        assertThat(ids).hasSize(10_000);
+    }
+
+    @Test
+    @DisplayName("Should not collide across nodes in the same millisecond")
+    void shouldNotCollideAcrossNodes() {
+        PaymentIdGenerator first = new PaymentIdGenerator(1, () -> NOW);
+        PaymentIdGenerator second = new PaymentIdGenerator(2, () -> NOW);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(first.generate());
+            ids.add(second.generate());
+        }
+        assertThat(ids).hasSize(2000);
+    }
+
+    @Test
+    @DisplayName("Should not repeat IDs under concurrent generation")
+    void shouldBeUniqueUnderConcurrency() throws InterruptedException {
+        PaymentIdGenerator generator = new PaymentIdGenerator(3);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.generate());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    @DisplayName("Should reject node IDs that do not fit the ID layout")
+    void shouldRejectOutOfRangeNodeId() {
+        assertThatThrownBy(() -> new PaymentIdGenerator(PaymentIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should take the node ID from a pod ordinal when none is configured")
+    void shouldDeriveNodeIdFromPodOrdinal() {
+        assertThat(PaymentIdGenerator.nodeIdFromHostname("payment-service-0")).isZero();
+        assertThat(PaymentIdGenerator.nodeIdFromHostname("payment-service-12")).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should fail at startup when no node ID is configured and none can be derived")
+    void shouldRejectHostnameWithoutPodOrdinal() {
+        assertThatThrownBy(() -> PaymentIdGenerator.nodeIdFromHostname("3f2a9c1b7d4e"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> PaymentIdGenerator.nodeIdFromHostname("payment-service-1024"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.productservice.dto.response.PageResponse;
+import com.productservice.dto.response.ProductResponse;
+import com.productservice.entity.Product;
+import com.productservice.seed.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductResponseBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ProductService productService;
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private ProductResponse response;
+    private PageResponse<ProductResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same Jackson setup Boot applies to the MVC message converters
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        productService = new ProductService(null, null, null, null, null, objectMapper);
+        products = new DataGenerator().generate(42L, PAGE_SIZE).getProducts();
+
+        List<ProductResponse> content = products.stream().map(productService::mapToResponse).toList();
+        response = content.get(0);
+        page = PageResponse.<ProductResponse>builder()
+                .content(content)
+                .page(0)
+                .size(PAGE_SIZE)
+                .totalElements(1500)
+                .totalPages(75)
+                .first(true)
+                .last(false)
+                .build();
+    }
+
+    @Benchmark
+    public void mapToResponse(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productService.mapToResponse(product));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProductResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializePageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,68 @@
+package com.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.productservice.dto.response.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class ProductCache implements MeterBinder {
+
+    private final Cache<String, ProductResponse> productsById;
+    private final Cache<String, String> productIdsBySku;
+
+    public ProductCache(@Value("${app.cache.product.max-size:10000}") long maxSize,
+                        @Value("${app.cache.product.ttl:PT5M}") Duration ttl) {
+        this.productsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // SKU lookups resolve through productsById, so invalidating a productId also hides it from SKU reads
+        this.productIdsBySku = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Loading inside the cache orders the read against invalidate(): an update that evicts the product while a
+    // read is in flight waits for that read and removes what it stored, instead of being overwritten by it
+    public ProductResponse getById(String productId, Function<String, ProductResponse> loader) {
+        return productsById.get(productId, id -> {
+            ProductResponse product = loader.apply(id);
+            productIdsBySku.put(product.getSku(), id);
+            return product;
+        });
+    }
+
+    public ProductResponse getBySku(String sku, Function<String, String> productIdLoader,
+                                    Function<String, ProductResponse> loader) {
+        return getById(productIdsBySku.get(sku, productIdLoader), loader);
+    }
+
+    public void invalidate(String productId) {
+        productsById.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        log.info("Invalidating product cache ({} entries)", productsById.estimatedSize());
+        productsById.invalidateAll();
+        productIdsBySku.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, productsById, "products.byId");
+        CaffeineCacheMetrics.monitor(registry, productIdsBySku, "products.bySku");
+    }
+}
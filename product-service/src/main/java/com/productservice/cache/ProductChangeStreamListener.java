@@ -0,0 +1,112 @@
+package com.productservice.cache;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.productservice.entity.Product;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.cache.product.change-stream.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeStreamListener
+        implements MessageListener<ChangeStreamDocument<Document>, Document>, SmartLifecycle {
+
+    private static final String PRODUCTS_COLLECTION = "products";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+
+    private MessageListenerContainer container;
+
+    @Override
+    public void onMessage(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> event = message.getRaw();
+        if (event == null) {
+            return;
+        }
+        Document body = message.getBody();
+        updateSearchIndex(event, body);
+
+        OperationType operationType = event.getOperationType();
+        if (operationType == OperationType.INSERT) {
+            return;
+        }
+
+        if (rekeysProduct(event)) {
+            productCache.invalidateAll();
+            return;
+        }
+
+        String productId = body != null ? body.getString("productId") : null;
+        if (productId != null) {
+            productCache.invalidate(productId);
+        } else {
+            // Deletes, drops and lookups of already-removed documents only carry the Mongo _id
+            productCache.invalidateAll();
+        }
+    }
+
+    private void updateSearchIndex(ChangeStreamDocument<Document> event, Document body) {
+        if (body != null) {
+            Product product = mongoTemplate.getConverter().read(Product.class, body);
+            productSearchIndex.index(product);
+            productSuggestIndex.index(product);
+        } else {
+            if (event.getDocumentKey() != null && event.getDocumentKey().isObjectId("_id")) {
+                productSearchIndex.removeByMongoId(event.getDocumentKey().getObjectId("_id").getValue().toHexString());
+            }
+            // Deletes only carry the Mongo _id, which the suggest index does not track
+            productSuggestIndex.requestRebuild();
+        }
+    }
+
+    private boolean rekeysProduct(ChangeStreamDocument<Document> event) {
+        UpdateDescription update = event.getUpdateDescription();
+        // SeedService upserts by SKU and may assign a new productId, which leaves the old key cached
+        return update != null && update.getUpdatedFields() != null
+                && (update.getUpdatedFields().containsKey("productId") || update.getUpdatedFields().containsKey("sku"));
+    }
+
+    @Override
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.register(ChangeStreamRequest.builder(this)
+                .collection(PRODUCTS_COLLECTION)
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build(), Document.class,
+                e -> log.warn("Product change stream error, cache and search index may be stale until it recovers: {}",
+                        e.getMessage()));
+        container.start();
+        log.info("Listening to '{}' change stream for product cache and search index updates", PRODUCTS_COLLECTION);
+    }
+
+    @Override
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null && container.isRunning();
+    }
+}
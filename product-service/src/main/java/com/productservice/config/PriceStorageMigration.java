@@ -0,0 +1,46 @@
+package com.productservice.config;
+
+import com.mongodb.client.result.UpdateResult;
+import com.productservice.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+// Earlier versions stored BigDecimal prices as strings; convert them to Decimal128 (see MongoConfig) before serving
+// traffic so numeric price filters and sorts see every product. Only string prices match, so later runs are no-ops.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.migration.price-decimal128.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PriceStorageMigration implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate();
+    }
+
+    public long migrate() {
+        Query stringPrices = Query.query(Criteria.where("price").type(JsonSchemaObject.Type.STRING));
+        AggregationUpdate toDecimal = AggregationUpdate.update()
+                .set("price").toValue(ConvertOperators.valueOf("price").convertToDecimal());
+        UpdateResult result = mongoTemplate.updateMulti(stringPrices, toDecimal, Product.class);
+        if (result.getModifiedCount() > 0) {
+            log.info("Converted {} product prices from string to Decimal128", result.getModifiedCount());
+        }
+        return result.getModifiedCount();
+    }
+}
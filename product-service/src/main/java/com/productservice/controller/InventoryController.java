@@ -1,5 +1,6 @@
 package com.productservice.controller;
 
+import com.productservice.dto.request.ReserveBatchRequest;
 import com.productservice.dto.request.UpdateInventoryRequest;
 import com.productservice.dto.response.InventoryResponse;
 import com.productservice.service.InventoryService;
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/inventory")
 @RequiredArgsConstructor
@@ -53,4 +56,13 @@ public class InventoryController {
         InventoryResponse response = inventoryService.releaseStock(productId, qty);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/reserve-batch")
+    @Operation(summary = "Reserve stock for multiple products",
+            description = "Reserves stock for every item or none of them; quantities for repeated product IDs are combined")
+    public ResponseEntity<List<InventoryResponse>> reserveStockBatch(
+            @Valid @RequestBody ReserveBatchRequest request) {
+        List<InventoryResponse> response = inventoryService.reserveStockBatch(request.getItems());
+        return ResponseEntity.ok(response);
+    }
 }
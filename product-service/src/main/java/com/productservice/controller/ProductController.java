@@ -1,20 +1,34 @@
 package com.productservice.controller;
 
 import com.productservice.dto.request.CreateProductRequest;
+import com.productservice.dto.request.ProductBatchRequest;
 import com.productservice.dto.request.UpdateProductRequest;
+import com.productservice.dto.response.CursorPageResponse;
 import com.productservice.dto.response.PageResponse;
+import com.productservice.dto.response.ProductBatchResponse;
+import com.productservice.dto.response.ProductImportResponse;
 import com.productservice.dto.response.ProductResponse;
+import com.productservice.dto.response.ProductSuggestion;
+import com.productservice.service.ProductImportService;
 import com.productservice.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -22,7 +36,10 @@ import java.math.BigDecimal;
 @Tag(name = "Products", description = "Product management APIs")
 public class ProductController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product and its inventory record")
@@ -66,6 +83,92 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(params = "after")
+    @Operation(summary = "List products by cursor", description = "Keyset pagination without a total count; pass an empty 'after' for the first page and the returned nextCursor for the following pages")
+    public ResponseEntity<CursorPageResponse<ProductResponse>> listProductsAfter(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page (empty for the first page)") @RequestParam String after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field (createdAt, price or name)") @RequestParam(required = false) String sort,
+            @Parameter(description = "Sort direction (asc/desc)") @RequestParam(required = false, defaultValue = "asc") String sortDir,
+            @Parameter(description = "Filter by category ID") @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Filter by active status") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Search query for name/description") @RequestParam(required = false) String q,
+            @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice) {
+        CursorPageResponse<ProductResponse> response = productService.listProductsAfter(
+                after, size, sort, sortDir, categoryId, active, q, minPrice, maxPrice);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export products", description = "Streams every matching product as newline-delimited JSON, gzip-compressed when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Filter by category ID") @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Filter by active status") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Search query for name/description") @RequestParam(required = false) String q,
+            @Parameter(description = "Minimum price filter") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price filter") @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                try (OutputStream compressed = new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE)) {
+                    productService.exportProducts(categoryId, active, q, minPrice, maxPrice, compressed);
+                }
+            } else {
+                productService.exportProducts(categoryId, active, q, minPrice, maxPrice, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import products from NDJSON", description = "Creates one product and its inventory per line, using the create-product fields; invalid lines are reported without stopping the import")
+    public ResponseEntity<ProductImportResponse> importProductsNdjson(InputStream body) throws IOException {
+        ProductImportResponse response = productImportService.importProducts(body, ProductImportService.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import products from CSV", description = "Same as the NDJSON import; the header row names the columns (sku, name, categoryId and price are required)")
+    public ResponseEntity<ProductImportResponse> importProductsCsv(InputStream body) throws IOException {
+        ProductImportResponse response = productImportService.importProducts(body, ProductImportService.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieves several products in one call, in request order, with the IDs that were not found")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<String> ids) {
+        ProductBatchResponse response = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get products by IDs (POST)", description = "Same as GET /batch, for ID lists too long for a query string")
+    public ResponseEntity<ProductBatchResponse> getProductsByIdsPost(
+            @Valid @RequestBody ProductBatchRequest request) {
+        ProductBatchResponse response = productService.getProductsByIds(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Typeahead over active product names and SKUs, most reserved products first; served from memory")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @Parameter(description = "Beginning of a product name word or SKU") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-20)") @RequestParam(defaultValue = "10") int limit) {
+        List<ProductSuggestion> response = productService.suggestProducts(prefix, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/sku/{sku}")
     @Operation(summary = "Get product by SKU", description = "Retrieves a product by its unique SKU")
     public ResponseEntity<ProductResponse> getProductBySku(
@@ -0,0 +1,23 @@
+package com.productservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private long productsPerSecond;
+    private List<ProductImportError> errors;
+    private boolean errorsTruncated;
+}
@@ -8,6 +8,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -20,7 +21,16 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "products")
-@CompoundIndex(name = "text_search_idx", def = "{'name': 'text', 'description': 'text'}")
+@CompoundIndexes({
+        @CompoundIndex(name = "text_search_idx", def = "{'name': 'text', 'description': 'text'}"),
+        @CompoundIndex(name = "created_cursor_idx", def = "{'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "price_cursor_idx", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "name_cursor_idx", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "active_created_cursor_idx", def = "{'active': 1, 'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_created_cursor_idx", def = "{'categoryId': 1, 'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_active_price_idx", def = "{'categoryId': 1, 'active': 1, 'price': 1}"),
+        @CompoundIndex(name = "active_price_idx", def = "{'active': 1, 'price': 1}")
+})
 public class Product {
 
     @Id
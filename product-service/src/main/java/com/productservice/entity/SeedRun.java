@@ -29,6 +29,8 @@ public class SeedRun {
 
     private Long durationMs;
 
+    private Long docsPerSecond;
+
     private String status;
 
     private String message;
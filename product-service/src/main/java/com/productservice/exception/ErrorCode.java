@@ -8,6 +8,8 @@ public enum ErrorCode {
     INVENTORY_NOT_FOUND,
     INSUFFICIENT_STOCK,
     INVALID_RELEASE_QUANTITY,
+    BATCH_TOO_LARGE,
+    INVALID_CURSOR,
     VALIDATION_ERROR,
     INTERNAL_ERROR
 }
@@ -0,0 +1,55 @@
+package com.productservice.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+
+    private String categoryId;
+    private Boolean active;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String text;
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    public TextCriteria toTextCriteria() {
+        return hasText() ? TextCriteria.forDefaultLanguage().matching(text) : null;
+    }
+
+    public List<Criteria> toCriteria() {
+        // Equality predicates first, then the price range, so the shape lines up with the compound indexes
+        List<Criteria> predicates = new ArrayList<>();
+        if (categoryId != null) {
+            predicates.add(Criteria.where("categoryId").is(categoryId));
+        }
+        if (active != null) {
+            predicates.add(Criteria.where("active").is(active));
+        }
+        if (minPrice != null || maxPrice != null) {
+            Criteria price = Criteria.where("price");
+            if (minPrice != null) {
+                price = price.gte(minPrice);
+            }
+            if (maxPrice != null) {
+                price = price.lte(maxPrice);
+            }
+            predicates.add(price);
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,19 @@
+package com.productservice.repository;
+
+import com.productservice.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+
+    Page<Product> findByFilter(ProductFilter filter, Pageable pageable);
+
+    List<Product> findByFilterAfter(ProductFilter filter, Criteria keyset, Sort sort, int limit);
+
+    Stream<Product> streamByFilter(ProductFilter filter);
+}
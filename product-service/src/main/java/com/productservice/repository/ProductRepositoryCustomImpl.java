@@ -0,0 +1,51 @@
+package com.productservice.repository;
+
+import com.productservice.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Page<Product> findByFilter(ProductFilter filter, Pageable pageable) {
+        Query query = buildQuery(filter, null);
+        List<Product> content = mongoTemplate.find(Query.of(query).with(pageable), Product.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(query, Product.class));
+    }
+
+    @Override
+    public List<Product> findByFilterAfter(ProductFilter filter, Criteria keyset, Sort sort, int limit) {
+        Query query = buildQuery(filter, keyset).with(sort).limit(limit);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamByFilter(ProductFilter filter) {
+        Query query = buildQuery(filter, null).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Product.class);
+    }
+
+    private Query buildQuery(ProductFilter filter, Criteria keyset) {
+        Query query = filter.hasText() ? TextQuery.queryText(filter.toTextCriteria()) : new Query();
+        filter.toCriteria().forEach(query::addCriteria);
+        if (keyset != null) {
+            query.addCriteria(keyset);
+        }
+        return query;
+    }
+}
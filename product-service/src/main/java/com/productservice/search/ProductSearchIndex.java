@@ -0,0 +1,386 @@
+package com.productservice.search;
+
+import com.productservice.entity.Category;
+import com.productservice.entity.Product;
+import com.productservice.repository.CategoryRepository;
+import com.productservice.repository.ProductFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float SKU_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_FACTOR = 0.6f;
+    private static final float FUZZY_FACTOR = 0.4f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 64;
+
+    private final boolean enabled;
+    private final MongoTemplate mongoTemplate;
+    private final CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String> categoryNames = new ConcurrentHashMap<>();
+    private IndexState state = new IndexState();
+    // Non-null while rebuild() streams from MongoDB; writes made meanwhile are replayed onto the rebuilt state
+    private List<Consumer<IndexState>> writesDuringRebuild;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(@Value("${app.search.enabled:false}") boolean enabled,
+                              MongoTemplate mongoTemplate,
+                              CategoryRepository categoryRepository) {
+        this.enabled = enabled;
+        this.mongoTemplate = mongoTemplate;
+        this.categoryRepository = categoryRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Startup and seeding can both trigger a rebuild; running them one at a time keeps each one's buffered writes
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            names.put(category.getCategoryId(), category.getName());
+        }
+        categoryNames.clear();
+        categoryNames.putAll(names);
+
+        IndexState rebuilt = new IndexState();
+        try (Stream<Product> products = mongoTemplate.stream(new Query(), Product.class)) {
+            products.forEach(product -> addDocument(rebuilt, product));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The stream may or may not have seen these writes; replaying them is safe because each one upserts
+            writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+            writesDuringRebuild = null;
+            state = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built product search index: {} products, {} terms in {}ms",
+                rebuilt.liveCount, rebuilt.terms.size(), System.currentTimeMillis() - startTime);
+    }
+
+    public void index(Product product) {
+        write(target -> addDocument(target, product));
+    }
+
+    public void removeByMongoId(String mongoId) {
+        write(target -> {
+            Integer ordinal = target.ordinalsByMongoId.get(mongoId);
+            if (ordinal != null) {
+                removeDocument(target, target.docs.get(ordinal).product().getProductId());
+            }
+        });
+    }
+
+    public void updateCategoryName(String categoryId, String name) {
+        String previous = categoryNames.put(categoryId, name);
+        if (name.equals(previous)) {
+            return;
+        }
+        write(target -> {
+            // A rebuild reloads categoryNames, so the rename is reapplied along with the replayed write
+            categoryNames.put(categoryId, name);
+            List<Product> affected = new ArrayList<>();
+            for (int ordinal = target.live.nextSetBit(0); ordinal >= 0; ordinal = target.live.nextSetBit(ordinal + 1)) {
+                Product product = target.docs.get(ordinal).product();
+                if (categoryId.equals(product.getCategoryId())) {
+                    affected.add(product);
+                }
+            }
+            affected.forEach(product -> addDocument(target, product));
+        });
+    }
+
+    private void write(Consumer<IndexState> write) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+            if (ready) {
+                write.accept(state);
+                compactIfFragmented();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page<Product> search(ProductFilter filter, Pageable pageable) {
+        List<String> queryTerms = SearchTokenizer.tokenize(filter.getText());
+
+        lock.readLock().lock();
+        try {
+            IndexState current = state;
+            double averageLength = current.liveCount == 0 ? 1.0 : current.totalLength / current.liveCount;
+            Map<Integer, Float> scores = new HashMap<>();
+
+            for (String queryTerm : queryTerms) {
+                // Keep the best expansion per document so a short prefix with many matches does not dominate
+                Map<Integer, Float> termScores = new HashMap<>();
+                expand(current, queryTerm).forEach((term, factor) -> {
+                    Postings postings = current.terms.get(term);
+                    double idf = idf(current.liveCount, Math.min(postings.size, current.liveCount));
+                    for (int i = 0; i < postings.size; i++) {
+                        int ordinal = postings.docs[i];
+                        if (!current.live.get(ordinal)) {
+                            continue;
+                        }
+                        float tf = postings.weights[i];
+                        double norm = K1 * (1 - B + B * current.docs.get(ordinal).length() / averageLength);
+                        float score = (float) (factor * idf * tf * (K1 + 1) / (tf + norm));
+                        termScores.merge(ordinal, score, Math::max);
+                    }
+                });
+                termScores.forEach((ordinal, score) -> scores.merge(ordinal, score, Float::sum));
+            }
+
+            List<ScoredProduct> hits = new ArrayList<>();
+            scores.forEach((ordinal, score) -> {
+                Product product = current.docs.get(ordinal).product();
+                if (matches(product, filter)) {
+                    hits.add(new ScoredProduct(product, score));
+                }
+            });
+            hits.sort(comparator(pageable.getSort()));
+
+            int from = (int) Math.min(pageable.getOffset(), hits.size());
+            int to = Math.min(from + pageable.getPageSize(), hits.size());
+            List<Product> content = hits.subList(from, to).stream().map(ScoredProduct::product).toList();
+            return new PageImpl<>(content, pageable, hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Float> expand(IndexState current, String queryTerm) {
+        Map<String, Float> expansions = new LinkedHashMap<>();
+        if (current.terms.containsKey(queryTerm)) {
+            expansions.put(queryTerm, 1.0f);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : prefixRange(current.terms, queryTerm).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                expansions.putIfAbsent(term, PREFIX_FACTOR);
+            }
+        }
+        if (expansions.isEmpty() && queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            // Only terms sharing the first character are considered, which keeps the scan to a slice of the dictionary
+            for (String term : prefixRange(current.terms, queryTerm.substring(0, 1)).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                if (SearchTokenizer.withinEditDistance(queryTerm, term, maxEdits)) {
+                    expansions.put(term, FUZZY_FACTOR);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private static NavigableMap<String, Postings> prefixRange(NavigableMap<String, Postings> terms, String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static boolean matches(Product product, ProductFilter filter) {
+        if (filter.getCategoryId() != null && !filter.getCategoryId().equals(product.getCategoryId())) {
+            return false;
+        }
+        if (filter.getActive() != null && filter.getActive() != product.isActive()) {
+            return false;
+        }
+        if (filter.getMinPrice() != null
+                && (product.getPrice() == null || product.getPrice().compareTo(filter.getMinPrice()) < 0)) {
+            return false;
+        }
+        return filter.getMaxPrice() == null
+                || (product.getPrice() != null && product.getPrice().compareTo(filter.getMaxPrice()) <= 0);
+    }
+
+    private static Comparator<ScoredProduct> comparator(Sort sort) {
+        Comparator<ScoredProduct> byRelevance = Comparator.comparingDouble(ScoredProduct::score).reversed()
+                .thenComparing(hit -> hit.product().getProductId());
+        Sort.Order order = sort.stream().findFirst().orElse(null);
+        if (order == null) {
+            return byRelevance;
+        }
+        Comparator<Product> byField = switch (order.getProperty()) {
+            case "createdAt" -> Comparator.comparing(Product::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "updatedAt" -> Comparator.comparing(Product::getUpdatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "price" -> Comparator.comparing(Product::getPrice, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "name" -> Comparator.comparing(Product::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+            default -> null;
+        };
+        if (byField == null) {
+            return byRelevance;
+        }
+        Comparator<ScoredProduct> comparator = Comparator.comparing(ScoredProduct::product,
+                order.isAscending() ? byField : byField.reversed());
+        return comparator.thenComparing(byRelevance);
+    }
+
+    private void addDocument(IndexState target, Product product) {
+        removeDocument(target, product.getProductId());
+        if (product.getId() != null && target.ordinalsByMongoId.containsKey(product.getId())) {
+            // A reseed can give an existing document a new productId
+            int previous = target.ordinalsByMongoId.get(product.getId());
+            removeDocument(target, target.docs.get(previous).product().getProductId());
+        }
+
+        Map<String, Float> termWeights = new HashMap<>();
+        float length = accumulate(termWeights, product.getName(), NAME_WEIGHT)
+                + accumulate(termWeights, product.getSku(), SKU_WEIGHT)
+                + accumulate(termWeights, categoryNames.get(product.getCategoryId()), CATEGORY_WEIGHT)
+                + accumulate(termWeights, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        int ordinal = target.docs.size();
+        target.docs.add(new IndexedDoc(product, length));
+        target.live.set(ordinal);
+        target.ordinalsByProductId.put(product.getProductId(), ordinal);
+        if (product.getId() != null) {
+            target.ordinalsByMongoId.put(product.getId(), ordinal);
+        }
+        termWeights.forEach((term, weight) -> target.terms.computeIfAbsent(term, t -> new Postings()).add(ordinal, weight));
+        target.totalLength += length;
+        target.liveCount++;
+    }
+
+    private static float accumulate(Map<String, Float> termWeights, String text, float weight) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        tokens.forEach(token -> termWeights.merge(token, weight, Float::sum));
+        return tokens.size() * weight;
+    }
+
+    private static void removeDocument(IndexState target, String productId) {
+        Integer ordinal = target.ordinalsByProductId.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        IndexedDoc doc = target.docs.get(ordinal);
+        if (doc.product().getId() != null) {
+            target.ordinalsByMongoId.remove(doc.product().getId());
+        }
+        target.live.clear(ordinal);
+        target.totalLength -= doc.length();
+        target.liveCount--;
+    }
+
+    private void compactIfFragmented() {
+        // Updates leave dead postings behind; rebuild from the live documents once they make up under half the index
+        if (state.docs.size() < 1024 || state.liveCount * 2 > state.docs.size()) {
+            return;
+        }
+        IndexState compacted = new IndexState();
+        for (int ordinal = state.live.nextSetBit(0); ordinal >= 0; ordinal = state.live.nextSetBit(ordinal + 1)) {
+            addDocument(compacted, state.docs.get(ordinal).product());
+        }
+        state = compacted;
+    }
+
+    private record IndexedDoc(Product product, float length) {
+    }
+
+    private record ScoredProduct(Product product, float score) {
+    }
+
+    private static final class IndexState {
+        private final NavigableMap<String, Postings> terms = new TreeMap<>();
+        private final List<IndexedDoc> docs = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, Integer> ordinalsByProductId = new HashMap<>();
+        private final Map<String, Integer> ordinalsByMongoId = new HashMap<>();
+        private double totalLength;
+        private int liveCount;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package com.productservice.search;
+
+import com.productservice.dto.response.ProductSuggestion;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class ProductSuggestIndex {
+
+    // Changed products are served from a small overlay until there are this many, then merged into the base
+    private static final int MAX_OVERLAY_PRODUCTS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration refreshInterval;
+    private final Duration rebuildDelay;
+    private final Duration fullRebuildInterval;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-suggest-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Written by request threads without locking and folded into the next view by refresh()
+    private final Map<String, SuggestDoc> pendingDocs = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> demand = new ConcurrentHashMap<>();
+    private volatile boolean demandChanged;
+
+    // Owned by refresh() and rebuild(), which only run on the refresh thread (or directly in tests)
+    private Snapshot base = Snapshot.EMPTY;
+    private int[] basePopularity = new int[0];
+    private boolean basePopularityChanged;
+    private final Map<String, SuggestDoc> overlayDocs = new HashMap<>();
+    private final Map<String, Integer> overlayPopularity = new HashMap<>();
+    private final Map<String, Long> foldedDemand = new HashMap<>();
+
+    private volatile View view = new View(Snapshot.EMPTY, new BitSet(), Snapshot.EMPTY);
+
+    public ProductSuggestIndex(MongoTemplate mongoTemplate,
+                               @Value("${app.suggest.refresh-interval:1s}") Duration refreshInterval,
+                               @Value("${app.suggest.rebuild-delay:5s}") Duration rebuildDelay,
+                               @Value("${app.suggest.full-rebuild-interval:30m}") Duration fullRebuildInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.refreshInterval = refreshInterval;
+        this.rebuildDelay = rebuildDelay;
+        this.fullRebuildInterval = fullRebuildInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildPending.set(true);
+        refreshExecutor.execute(this::runPendingRebuild);
+        refreshExecutor.scheduleWithFixedDelay(() -> runSafely(this::refresh),
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        refreshExecutor.scheduleWithFixedDelay(() -> runSafely(this::rebuild),
+                fullRebuildInterval.toMillis(), fullRebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // For bulk writes such as imports and seeding; calls within rebuild-delay share one full rebuild
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            refreshExecutor.schedule(this::runPendingRebuild, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runPendingRebuild() {
+        rebuildPending.set(false);
+        runSafely(this::rebuild);
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Failed to refresh product suggest index: {}", e.getMessage(), e);
+        }
+    }
+
+    public void index(Product product) {
+        pendingDocs.put(product.getProductId(), new SuggestDoc(product.getProductId(),
+                product.getSku() != null ? product.getSku() : "",
+                product.getName() != null ? product.getName() : "",
+                product.isActive()));
+    }
+
+    public void recordDemand(String productId, int qty) {
+        demand.computeIfAbsent(productId, id -> new LongAdder()).add(qty);
+        if (!demandChanged) {
+            demandChanged = true;
+        }
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        return view.suggest(prefix, limit);
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        Query inventoryQuery = new Query(Criteria.where("reservedQty").gt(0));
+        inventoryQuery.fields().include("productId", "reservedQty");
+        Map<String, Integer> reserved = new HashMap<>();
+        try (Stream<Inventory> inventories = mongoTemplate.stream(inventoryQuery, Inventory.class)) {
+            inventories.forEach(inventory -> reserved.put(inventory.getProductId(), inventory.getReservedQty()));
+        }
+
+        Query productQuery = new Query(Criteria.where("active").is(true));
+        productQuery.fields().include("productId", "sku", "name");
+        List<SuggestDoc> docs = new ArrayList<>();
+        try (Stream<Product> products = mongoTemplate.stream(productQuery, Product.class)) {
+            products.forEach(product -> docs.add(new SuggestDoc(product.getProductId(),
+                    product.getSku() != null ? product.getSku() : "",
+                    product.getName() != null ? product.getName() : "", true)));
+        }
+
+        // Demand recorded since the last rebuild is usually not yet reflected in reservedQty, so keep whichever
+        // count is higher rather than resetting products to their stored reservations
+        int[] popularity = new int[docs.size()];
+        for (int doc = 0; doc < popularity.length; doc++) {
+            String productId = docs.get(doc).productId();
+            popularity[doc] = Math.max(reserved.getOrDefault(productId, 0), knownPopularity(productId));
+        }
+        replaceBase(docs, popularity);
+
+        // Writes that raced with the stream above are still pending and are applied on top
+        refresh();
+        log.info("Built product suggest index: {} products, {} keys in {}ms",
+                base.productIds.length, base.entryDocs.length, System.currentTimeMillis() - startTime);
+    }
+
+    public synchronized void refresh() {
+        boolean changed = applyPendingDocs();
+        changed |= foldDemand();
+        if (overlayDocs.size() > MAX_OVERLAY_PRODUCTS) {
+            compact();
+            changed = true;
+        }
+        if (changed || view.base != base) {
+            publish();
+        }
+    }
+
+    private boolean applyPendingDocs() {
+        boolean changed = false;
+        for (Map.Entry<String, SuggestDoc> pending : pendingDocs.entrySet()) {
+            // Only drop the entry if no newer write replaced it in the meantime
+            pendingDocs.remove(pending.getKey(), pending.getValue());
+            String productId = pending.getKey();
+            if (!overlayDocs.containsKey(productId)) {
+                overlayPopularity.put(productId, knownPopularity(productId));
+            }
+            overlayDocs.put(productId, pending.getValue());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean foldDemand() {
+        if (!demandChanged) {
+            return false;
+        }
+        demandChanged = false;
+        boolean changed = false;
+        for (Map.Entry<String, LongAdder> recorded : demand.entrySet()) {
+            String productId = recorded.getKey();
+            long total = recorded.getValue().sum();
+            int delta = (int) (total - foldedDemand.getOrDefault(productId, 0L));
+            if (delta == 0) {
+                continue;
+            }
+            Integer doc = base.docsByProductId.get(productId);
+            if (overlayDocs.containsKey(productId)) {
+                overlayPopularity.merge(productId, delta, Integer::sum);
+            } else if (doc != null) {
+                basePopularity[doc] += delta;
+                basePopularityChanged = true;
+            } else {
+                // Not indexed yet; the demand is applied once the product shows up
+                continue;
+            }
+            foldedDemand.put(productId, total);
+            changed = true;
+        }
+        return changed;
+    }
+
+    private int knownPopularity(String productId) {
+        Integer overlay = overlayPopularity.get(productId);
+        if (overlay != null) {
+            return overlay;
+        }
+        Integer doc = base.docsByProductId.get(productId);
+        return doc != null ? basePopularity[doc] : 0;
+    }
+
+    private void compact() {
+        List<SuggestDoc> docs = new ArrayList<>();
+        List<Integer> popularity = new ArrayList<>();
+        for (int doc = 0; doc < base.productIds.length; doc++) {
+            if (!overlayDocs.containsKey(base.productIds[doc])) {
+                docs.add(new SuggestDoc(base.productIds[doc], base.skus[doc], base.names[doc], true));
+                popularity.add(basePopularity[doc]);
+            }
+        }
+        overlayDocs.values().stream().filter(SuggestDoc::active).forEach(doc -> {
+            docs.add(doc);
+            popularity.add(overlayPopularity.get(doc.productId()));
+        });
+        replaceBase(docs, popularity.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private void replaceBase(List<SuggestDoc> docs, int[] popularity) {
+        base = Snapshot.of(docs, popularity.clone());
+        basePopularity = popularity;
+        basePopularityChanged = false;
+        overlayDocs.clear();
+        overlayPopularity.clear();
+    }
+
+    private void publish() {
+        if (basePopularityChanged) {
+            base = base.withPopularity(basePopularity.clone());
+            basePopularityChanged = false;
+        }
+        BitSet hidden = new BitSet(base.productIds.length);
+        List<SuggestDoc> overlay = new ArrayList<>();
+        for (SuggestDoc doc : overlayDocs.values()) {
+            Integer baseDoc = base.docsByProductId.get(doc.productId());
+            if (baseDoc != null) {
+                hidden.set(baseDoc);
+            }
+            if (doc.active()) {
+                overlay.add(doc);
+            }
+        }
+        int[] overlayRanks = overlay.stream().mapToInt(doc -> overlayPopularity.get(doc.productId())).toArray();
+        view = new View(base, hidden, Snapshot.of(overlay, overlayRanks));
+    }
+
+    private record SuggestDoc(String productId, String sku, String name, boolean active) {
+    }
+
+    // What suggest() reads: an immutable base, the base products superseded by later writes, and those writes
+    private record View(Snapshot base, BitSet hidden, Snapshot overlay) {
+
+        List<ProductSuggestion> suggest(String prefix, int limit) {
+            String folded = fold(prefix);
+            List<Integer> fromBase = base.top(folded, limit, hidden);
+            List<Integer> fromOverlay = overlay.top(folded, limit, null);
+
+            List<ProductSuggestion> suggestions = new ArrayList<>(limit);
+            int b = 0;
+            int o = 0;
+            while (suggestions.size() < limit && (b < fromBase.size() || o < fromOverlay.size())) {
+                boolean takeBase = o >= fromOverlay.size() || (b < fromBase.size()
+                        && base.popularity[fromBase.get(b)] >= overlay.popularity[fromOverlay.get(o)]);
+                suggestions.add(takeBase ? base.suggestion(fromBase.get(b++)) : overlay.suggestion(fromOverlay.get(o++)));
+            }
+            return suggestions;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new String[0], new int[0]);
+
+        private final String[] productIds;
+        private final String[] names;
+        private final String[] skus;
+        private final int[] popularity;
+        private final Map<String, Integer> docsByProductId;
+
+        // Keys are sorted (doc, offset) pairs pointing into names, or into skus when stored as ~doc, so all
+        // keys sharing a prefix form one contiguous range without copying any strings
+        private final int[] entryDocs;
+        private final short[] entryOffsets;
+        private final int[] docEntryStarts;
+        private final int[] docEntries;
+
+        // Max segment tree over entry popularity, used to pull the top entries of a range without scanning it
+        private final int leaves;
+        private final int[] tree;
+
+        private static Snapshot of(List<SuggestDoc> docs, int[] popularity) {
+            return new Snapshot(docs.stream().map(SuggestDoc::productId).toArray(String[]::new),
+                    docs.stream().map(SuggestDoc::name).toArray(String[]::new),
+                    docs.stream().map(SuggestDoc::sku).toArray(String[]::new), popularity);
+        }
+
+        private Snapshot(String[] productIds, String[] names, String[] skus, int[] popularity) {
+            this.productIds = productIds;
+            this.names = names;
+            this.skus = skus;
+            this.popularity = popularity;
+            this.docsByProductId = new HashMap<>(productIds.length * 2);
+            for (int doc = 0; doc < productIds.length; doc++) {
+                docsByProductId.put(productIds[doc], doc);
+            }
+
+            List<long[]> keys = new ArrayList<>();
+            for (int doc = 0; doc < names.length; doc++) {
+                String name = names[doc];
+                for (int offset = 0; offset < name.length() && offset <= Short.MAX_VALUE; offset++) {
+                    // Every word of the name is a key, so "head" finds "Sony Wireless Headphones"
+                    if (Character.isLetterOrDigit(name.charAt(offset))
+                            && (offset == 0 || !Character.isLetterOrDigit(name.charAt(offset - 1)))) {
+                        keys.add(new long[]{doc, offset});
+                    }
+                }
+                if (!skus[doc].isEmpty()) {
+                    keys.add(new long[]{~doc, 0});
+                }
+            }
+            keys.sort((a, b) -> compareKeys(key((int) a[0]), (int) a[1], key((int) b[0]), (int) b[1]));
+
+            int size = keys.size();
+            this.entryDocs = new int[size];
+            this.entryOffsets = new short[size];
+            for (int e = 0; e < size; e++) {
+                entryDocs[e] = (int) keys.get(e)[0];
+                entryOffsets[e] = (short) keys.get(e)[1];
+            }
+
+            this.docEntryStarts = new int[productIds.length + 1];
+            for (int e = 0; e < size; e++) {
+                docEntryStarts[doc(e) + 1]++;
+            }
+            for (int doc = 0; doc < productIds.length; doc++) {
+                docEntryStarts[doc + 1] += docEntryStarts[doc];
+            }
+            this.docEntries = new int[size];
+            int[] fill = Arrays.copyOf(docEntryStarts, productIds.length);
+            for (int e = 0; e < size; e++) {
+                docEntries[fill[doc(e)]++] = e;
+            }
+
+            int capacity = 1;
+            while (capacity < size) {
+                capacity <<= 1;
+            }
+            this.leaves = capacity;
+            this.tree = buildTree();
+        }
+
+        // Same keys with new popularity: only the tree is rebuilt, which is linear, instead of re-sorting the keys
+        private Snapshot(Snapshot keys, int[] popularity) {
+            this.productIds = keys.productIds;
+            this.names = keys.names;
+            this.skus = keys.skus;
+            this.popularity = popularity;
+            this.docsByProductId = keys.docsByProductId;
+            this.entryDocs = keys.entryDocs;
+            this.entryOffsets = keys.entryOffsets;
+            this.docEntryStarts = keys.docEntryStarts;
+            this.docEntries = keys.docEntries;
+            this.leaves = keys.leaves;
+            this.tree = buildTree();
+        }
+
+        private Snapshot withPopularity(int[] popularity) {
+            return new Snapshot(this, popularity);
+        }
+
+        private int[] buildTree() {
+            int[] built = new int[leaves * 2];
+            Arrays.fill(built, -1);
+            for (int e = 0; e < entryDocs.length; e++) {
+                built[leaves + e] = e;
+            }
+            for (int node = leaves - 1; node >= 1; node--) {
+                built[node] = better(built[node * 2], built[node * 2 + 1]);
+            }
+            return built;
+        }
+
+        private ProductSuggestion suggestion(int doc) {
+            return ProductSuggestion.builder()
+                    .productId(productIds[doc])
+                    .sku(skus[doc])
+                    .name(names[doc])
+                    .build();
+        }
+
+        // Docs with a key starting with the folded prefix, most popular first, skipping any set in hidden
+        private List<Integer> top(String folded, int limit, BitSet hidden) {
+            int from = lowerBound(folded, false);
+            int to = lowerBound(folded, true);
+            if (from >= to) {
+                return List.of();
+            }
+
+            // Start from the canonical nodes covering [from, to) and expand the most popular node first
+            PriorityQueue<Integer> nodes = new PriorityQueue<>((a, b) -> compareEntries(tree[a], tree[b]));
+            for (int lo = from + leaves, hi = to + leaves; lo < hi; lo /= 2, hi /= 2) {
+                if ((lo & 1) == 1) {
+                    nodes.add(lo++);
+                }
+                if ((hi & 1) == 1) {
+                    nodes.add(--hi);
+                }
+            }
+
+            List<Integer> docs = new ArrayList<>(limit);
+            Set<Integer> seen = new HashSet<>();
+            while (!nodes.isEmpty() && docs.size() < limit) {
+                int node = nodes.poll();
+                if (node < leaves) {
+                    nodes.add(node * 2);
+                    if (tree[node * 2 + 1] >= 0) {
+                        nodes.add(node * 2 + 1);
+                    }
+                    continue;
+                }
+                int doc = doc(tree[node]);
+                if (seen.add(doc) && (hidden == null || !hidden.get(doc))) {
+                    docs.add(doc);
+                }
+            }
+            return docs;
+        }
+
+        private int lowerBound(String prefix, boolean past) {
+            int lo = 0;
+            int hi = entryDocs.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = comparePrefix(key(entryDocs[mid]), entryOffsets[mid], prefix);
+                if (cmp < 0 || (past && cmp == 0)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            return compareEntries(a, b) <= 0 ? a : b;
+        }
+
+        private int compareEntries(int a, int b) {
+            if (a < 0 || b < 0) {
+                return a < 0 ? (b < 0 ? 0 : 1) : -1;
+            }
+            int byPopularity = Integer.compare(popularity[doc(b)], popularity[doc(a)]);
+            return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+        }
+
+        private int doc(int entry) {
+            int encoded = entryDocs[entry];
+            return encoded < 0 ? ~encoded : encoded;
+        }
+
+        private String key(int encodedDoc) {
+            return encodedDoc < 0 ? skus[~encodedDoc] : names[encodedDoc];
+        }
+    }
+
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            folded.append(Character.toLowerCase(text.charAt(i)));
+        }
+        return folded.toString();
+    }
+
+    private static int compareKeys(String a, int aOffset, String b, int bOffset) {
+        int aLength = a.length() - aOffset;
+        int bLength = b.length() - bOffset;
+        for (int i = 0; i < Math.min(aLength, bLength); i++) {
+            int cmp = Character.compare(Character.toLowerCase(a.charAt(aOffset + i)),
+                    Character.toLowerCase(b.charAt(bOffset + i)));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(aLength, bLength);
+    }
+
+    private static int comparePrefix(String key, int offset, String prefix) {
+        int keyLength = key.length() - offset;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (i >= keyLength) {
+                return -1;
+            }
+            int cmp = Character.compare(Character.toLowerCase(key.charAt(offset + i)), prefix.charAt(i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
@@ -11,6 +11,7 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Component
 public class DataGenerator {
@@ -269,13 +270,38 @@ public class DataGenerator {
         }
     }
 
-    public GeneratedData generate(long seed, int productCount) {
-        Random random = new Random(seed);
+    public static class ProductChunk {
+        @Getter
+        private final List<Product> products;
+        @Getter
+        private final List<Inventory> inventories;
 
+        public ProductChunk(List<Product> products, List<Inventory> inventories) {
+            this.products = products;
+            this.inventories = inventories;
+        }
+    }
+
+    public GeneratedData generate(long seed, int productCount) {
         List<Category> categories = generateCategories();
         List<Product> products = new ArrayList<>();
         List<Inventory> inventories = new ArrayList<>();
 
+        generateProducts(seed, productCount, categories, Math.max(productCount, 1), chunk -> {
+            products.addAll(chunk.getProducts());
+            inventories.addAll(chunk.getInventories());
+        });
+
+        return new GeneratedData(categories, products, inventories);
+    }
+
+    public void generateProducts(long seed, int productCount, List<Category> categories, int chunkSize,
+                                 Consumer<ProductChunk> consumer) {
+        Random random = new Random(seed);
+
+        List<Product> products = new ArrayList<>(chunkSize);
+        List<Inventory> inventories = new ArrayList<>(chunkSize);
+
         Instant now = Instant.now();
         Instant eighteenMonthsAgo = now.minus(18 * 30, ChronoUnit.DAYS);
         long timeRangeSeconds = now.getEpochSecond() - eighteenMonthsAgo.getEpochSecond();
@@ -342,13 +368,21 @@ public class DataGenerator {
                         .reservedQty(reservedQty)
                         .build();
                 inventories.add(inventory);
+
+                if (products.size() == chunkSize) {
+                    consumer.accept(new ProductChunk(products, inventories));
+                    products = new ArrayList<>(chunkSize);
+                    inventories = new ArrayList<>(chunkSize);
+                }
             }
         }
 
-        return new GeneratedData(categories, products, inventories);
+        if (!products.isEmpty()) {
+            consumer.accept(new ProductChunk(products, inventories));
+        }
     }
 
-    private List<Category> generateCategories() {
+    public List<Category> generateCategories() {
         List<Category> categories = new ArrayList<>();
         for (Map.Entry<String, CategoryData> entry : CATEGORY_DATA.entrySet()) {
             Category category = Category.builder()
@@ -8,6 +8,7 @@ import com.productservice.exception.ConflictException;
 import com.productservice.exception.ErrorCode;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.CategoryRepository;
+import com.productservice.search.ProductSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ import java.util.UUID;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
 
     @Transactional
     public CategoryResponse createCategory(CreateCategoryRequest request) {
@@ -41,6 +43,7 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        productSearchIndex.updateCategoryName(categoryId, savedCategory.getName());
 
         log.info("Created category with ID: {}", categoryId);
         return mapToResponse(savedCategory);
@@ -67,6 +70,7 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        productSearchIndex.updateCategoryName(categoryId, updatedCategory.getName());
         log.info("Updated category with ID: {}", categoryId);
         return mapToResponse(updatedCategory);
     }
@@ -1,5 +1,6 @@
 package com.productservice.service;
 
+import com.productservice.dto.request.ReserveItemRequest;
 import com.productservice.dto.request.UpdateInventoryRequest;
 import com.productservice.dto.response.InventoryResponse;
 import com.productservice.entity.Inventory;
@@ -7,17 +8,36 @@ import com.productservice.exception.BusinessException;
 import com.productservice.exception.ErrorCode;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.InventoryRepository;
+import com.productservice.search.ProductSuggestIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ProductSuggestIndex productSuggestIndex;
 
     public InventoryResponse getInventoryByProductId(String productId) {
         log.info("Fetching inventory for product ID: {}", productId);
@@ -44,50 +64,102 @@ public class InventoryService {
         return mapToResponse(updatedInventory);
     }
 
-    @Transactional
     public InventoryResponse reserveStock(String productId, int qty) {
-        log.info("Reserving {} units for product ID: {}", qty, productId);
+        InventoryResponse reserved = reserve(productId, qty);
+        productSuggestIndex.recordDemand(productId, qty);
+        return reserved;
+    }
 
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.INVENTORY_NOT_FOUND,
-                        "Inventory not found for product ID: " + productId));
+    private InventoryResponse reserve(String productId, int qty) {
+        log.info("Reserving {} units for product ID: {}", qty, productId);
 
-        int availableQty = inventory.getAvailableQty();
-        if (availableQty < qty) {
+        AggregationExpression availableQty = ArithmeticOperators.Subtract.valueOf("stockQty")
+                .subtract(ConditionalOperators.ifNull("reservedQty").then(0));
+        Query query = new Query(Criteria.where("productId").is(productId)
+                .and("$expr").is(ComparisonOperators.Gte.valueOf(availableQty)
+                        .greaterThanEqualToValue(qty)
+                        .toDocument(Aggregation.DEFAULT_CONTEXT)));
+        Update update = new Update()
+                .inc("reservedQty", qty)
+                .set("updatedAt", Instant.now());
+
+        Inventory updatedInventory = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Inventory.class);
+
+        if (updatedInventory == null) {
+            Inventory inventory = findInventory(productId);
             throw new BusinessException(ErrorCode.INSUFFICIENT_STOCK,
-                    "Insufficient stock. Available: " + availableQty + ", Requested: " + qty);
+                    "Insufficient stock. Available: " + inventory.getAvailableQty() + ", Requested: " + qty);
         }
 
-        inventory.setReservedQty(inventory.getReservedQty() + qty);
-
-        Inventory updatedInventory = inventoryRepository.save(inventory);
         log.info("Reserved {} units for product ID: {}. New reserved qty: {}",
                 qty, productId, updatedInventory.getReservedQty());
         return mapToResponse(updatedInventory);
     }
 
-    @Transactional
     public InventoryResponse releaseStock(String productId, int qty) {
         log.info("Releasing {} units for product ID: {}", qty, productId);
 
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.INVENTORY_NOT_FOUND,
-                        "Inventory not found for product ID: " + productId));
+        Query query = new Query(Criteria.where("productId").is(productId).and("reservedQty").gte(qty));
+        Update update = new Update()
+                .inc("reservedQty", -qty)
+                .set("updatedAt", Instant.now());
+
+        Inventory updatedInventory = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Inventory.class);
 
-        int currentReserved = inventory.getReservedQty() != null ? inventory.getReservedQty() : 0;
-        if (qty > currentReserved) {
+        if (updatedInventory == null) {
+            Inventory inventory = findInventory(productId);
+            int currentReserved = inventory.getReservedQty() != null ? inventory.getReservedQty() : 0;
             throw new BusinessException(ErrorCode.INVALID_RELEASE_QUANTITY,
                     "Cannot release " + qty + " units. Only " + currentReserved + " units are reserved");
         }
 
-        inventory.setReservedQty(currentReserved - qty);
-
-        Inventory updatedInventory = inventoryRepository.save(inventory);
         log.info("Released {} units for product ID: {}. New reserved qty: {}",
                 qty, productId, updatedInventory.getReservedQty());
         return mapToResponse(updatedInventory);
     }
 
+    public List<InventoryResponse> reserveStockBatch(List<ReserveItemRequest> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (ReserveItemRequest item : items) {
+            quantities.merge(item.getProductId(), item.getQty(), Integer::sum);
+        }
+        log.info("Reserving stock for {} products in batch", quantities.size());
+
+        List<InventoryResponse> reserved = new ArrayList<>(quantities.size());
+        try {
+            for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+                reserved.add(reserve(entry.getKey(), entry.getValue()));
+            }
+        } catch (RuntimeException e) {
+            // Any failure, including a database error, releases what was already reserved
+            log.warn("Batch reservation failed after {} of {} products, releasing: {}",
+                    reserved.size(), quantities.size(), e.getMessage());
+            for (InventoryResponse inventory : reserved) {
+                try {
+                    releaseStock(inventory.getProductId(), quantities.get(inventory.getProductId()));
+                } catch (Exception releaseError) {
+                    log.error("Failed to release {} units for product ID: {}: {}",
+                            quantities.get(inventory.getProductId()), inventory.getProductId(),
+                            releaseError.getMessage());
+                }
+            }
+            throw e;
+        }
+
+        // Demand counts only once the whole batch holds, so failed and retried batches do not inflate popularity
+        quantities.forEach(productSuggestIndex::recordDemand);
+        log.info("Reserved stock for {} products in batch", reserved.size());
+        return reserved;
+    }
+
+    private Inventory findInventory(String productId) {
+        return inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.INVENTORY_NOT_FOUND,
+                        "Inventory not found for product ID: " + productId));
+    }
+
     private InventoryResponse mapToResponse(Inventory inventory) {
         return InventoryResponse.builder()
                 .productId(inventory.getProductId())
@@ -0,0 +1,111 @@
+package com.productservice.service;
+
+import com.productservice.entity.Product;
+import com.productservice.exception.BusinessException;
+import com.productservice.exception.ErrorCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+
+@Getter
+@RequiredArgsConstructor
+class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final SortField sortField;
+    private final Sort.Direction direction;
+    private final String lastId;
+    private final Object lastValue;
+
+    static ProductCursor first(SortField sortField, Sort.Direction direction) {
+        return new ProductCursor(sortField, direction, null, null);
+    }
+
+    static ProductCursor after(SortField sortField, Sort.Direction direction, Product last) {
+        return new ProductCursor(sortField, direction, last.getId(), sortField.valueOf(last));
+    }
+
+    Object lastIdValue() {
+        // The query mapper leaves range operands on _id as strings, which never compare against ObjectIds
+        return ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId;
+    }
+
+    boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sortField.getField(), direction.name(), lastId,
+                sortField.format(lastValue));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || parts[2].isEmpty()) {
+                throw invalid(token);
+            }
+            SortField sortField = SortField.fromField(parts[0]);
+            return new ProductCursor(sortField, Sort.Direction.valueOf(parts[1]), parts[2],
+                    sortField.parse(parts[3]));
+        } catch (BusinessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw invalid(token);
+        }
+    }
+
+    private static BusinessException invalid(String token) {
+        return new BusinessException(ErrorCode.INVALID_CURSOR, "Invalid pagination cursor: " + token);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    enum SortField {
+        CREATED_AT("createdAt", Product::getCreatedAt,
+                value -> String.valueOf(((Instant) value).toEpochMilli()),
+                text -> Instant.ofEpochMilli(Long.parseLong(text))),
+        PRICE("price", Product::getPrice,
+                value -> ((BigDecimal) value).toPlainString(),
+                BigDecimal::new),
+        NAME("name", Product::getName,
+                value -> (String) value,
+                text -> text);
+
+        private final String field;
+        private final Function<Product, Object> extractor;
+        private final Function<Object, String> formatter;
+        private final Function<String, Object> parser;
+
+        Object valueOf(Product product) {
+            return extractor.apply(product);
+        }
+
+        String format(Object value) {
+            return formatter.apply(value);
+        }
+
+        Object parse(String text) {
+            return parser.apply(text);
+        }
+
+        static SortField fromField(String field) {
+            return Arrays.stream(values())
+                    .filter(sortField -> sortField.field.equals(field))
+                    .findFirst()
+                    .orElseThrow(() -> new BusinessException(ErrorCode.INVALID_CURSOR,
+                            "Cursor pagination supports sorting by createdAt, price or name, not: " + field));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.productservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.productservice.dto.request.CreateProductRequest;
+import com.productservice.dto.response.ProductImportError;
+import com.productservice.dto.response.ProductImportResponse;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
+import com.productservice.exception.BusinessException;
+import com.productservice.exception.ErrorCode;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("sku", "name", "categoryId", "price");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    public ProductImportResponse importProducts(InputStream inputStream, Format format) throws IOException {
+        log.info("Importing products from {} stream", format);
+        long startTime = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            Set<String> chunkSkus = new HashSet<>();
+            List<String> csvHeader = format == Format.CSV ? readCsvHeader(reader) : null;
+            long lineNumber = csvHeader != null ? 1 : 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.received++;
+
+                PendingRow row = parseRow(line, lineNumber, csvHeader, report);
+                if (row == null) {
+                    continue;
+                }
+                // Repeats across chunks are caught by the unique SKU index instead
+                if (!chunkSkus.add(row.request().getSku())) {
+                    report.error(lineNumber, row.request().getSku(), ErrorCode.PRODUCT_SKU_CONFLICT,
+                            "SKU '" + row.request().getSku() + "' appears more than once in the import");
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                    chunkSkus.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, report);
+            }
+        } finally {
+            if (report.imported > 0) {
+                productSuggestIndex.requestRebuild();
+            }
+        }
+
+        long durationMs = System.currentTimeMillis() - startTime;
+        long productsPerSecond = report.imported * 1000 / Math.max(durationMs, 1);
+        log.info("Imported {} of {} products in {}ms ({}/s), {} failed",
+                report.imported, report.received, durationMs, productsPerSecond, report.failed);
+
+        return ProductImportResponse.builder()
+                .received(report.received)
+                .imported(report.imported)
+                .failed(report.failed)
+                .durationMs(durationMs)
+                .productsPerSecond(productsPerSecond)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .build();
+    }
+
+    private List<String> readCsvHeader(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "CSV import is empty, a header row is required");
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        List<String> header = parseCsvLine(headerLine).stream().map(String::strip).toList();
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream().filter(column -> !header.contains(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "CSV header is missing required columns: " + String.join(", ", missing));
+        }
+        return header;
+    }
+
+    private PendingRow parseRow(String line, long lineNumber, List<String> csvHeader, ImportReport report) {
+        CreateProductRequest request;
+        try {
+            request = csvHeader != null
+                    ? toRequest(csvHeader, parseCsvLine(line))
+                    : objectMapper.readValue(line, CreateProductRequest.class);
+        } catch (JsonProcessingException e) {
+            report.error(lineNumber, null, ErrorCode.VALIDATION_ERROR, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            report.error(lineNumber, null, ErrorCode.VALIDATION_ERROR, e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.error(lineNumber, request.getSku(), ErrorCode.VALIDATION_ERROR, message);
+            return null;
+        }
+        return new PendingRow(lineNumber, request);
+    }
+
+    private CreateProductRequest toRequest(List<String> header, List<String> values) {
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected at most " + header.size() + " columns but found " + values.size());
+        }
+        CreateProductRequest request = CreateProductRequest.builder().build();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).strip();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "sku" -> request.setSku(value);
+                case "name" -> request.setName(value);
+                case "description" -> request.setDescription(value);
+                case "categoryId" -> request.setCategoryId(value);
+                case "price" -> request.setPrice(parseNumber(value, "price", BigDecimal::new));
+                case "currency" -> request.setCurrency(value);
+                case "active" -> request.setActive(parseBoolean(value));
+                case "initialStockQty" -> request.setInitialStockQty(parseNumber(value, "initialStockQty", Integer::valueOf));
+                default -> {
+                    // Unknown columns are ignored so supplier exports can carry extra fields
+                }
+            }
+        }
+        return request;
+    }
+
+    private static <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid active: '" + value + "'");
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private void writeChunk(List<PendingRow> rows, ImportReport report) {
+        Instant now = Instant.now();
+        List<Product> products = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            CreateProductRequest request = row.request();
+            products.add(Product.builder()
+                    .id(new ObjectId().toHexString())
+                    .productId(UUID.randomUUID().toString())
+                    .sku(request.getSku())
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .categoryId(request.getCategoryId())
+                    .price(request.getPrice())
+                    .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
+                    .active(request.getActive() != null ? request.getActive() : true)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        Set<Integer> rejected = new HashSet<>();
+        for (BulkWriteError error : insertUnordered(Product.class, products)) {
+            rejected.add(error.getIndex());
+            PendingRow row = rows.get(error.getIndex());
+            if (error.getCode() == DUPLICATE_KEY) {
+                report.error(row.line(), row.request().getSku(), ErrorCode.PRODUCT_SKU_CONFLICT,
+                        "Product with SKU '" + row.request().getSku() + "' already exists");
+            } else {
+                report.error(row.line(), row.request().getSku(), ErrorCode.INTERNAL_ERROR, error.getMessage());
+            }
+        }
+
+        List<Product> inserted = new ArrayList<>(products.size() - rejected.size());
+        List<PendingRow> insertedRows = new ArrayList<>(products.size() - rejected.size());
+        List<Inventory> inventories = new ArrayList<>(products.size() - rejected.size());
+        for (int i = 0; i < products.size(); i++) {
+            if (rejected.contains(i)) {
+                continue;
+            }
+            Integer initialStockQty = rows.get(i).request().getInitialStockQty();
+            inserted.add(products.get(i));
+            insertedRows.add(rows.get(i));
+            inventories.add(Inventory.builder()
+                    .productId(products.get(i).getProductId())
+                    .stockQty(initialStockQty != null ? initialStockQty : 0)
+                    .reservedQty(0)
+                    .updatedAt(now)
+                    .build());
+        }
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        List<BulkWriteError> inventoryErrors = insertUnordered(Inventory.class, inventories);
+        if (!inventoryErrors.isEmpty()) {
+            // A product without inventory cannot be ordered, so drop it and report the row rather than leave it half-created
+            Set<String> orphanedIds = new HashSet<>();
+            for (BulkWriteError error : inventoryErrors) {
+                PendingRow row = insertedRows.get(error.getIndex());
+                orphanedIds.add(inserted.get(error.getIndex()).getProductId());
+                report.error(row.line(), row.request().getSku(), ErrorCode.INTERNAL_ERROR,
+                        "Inventory could not be created: " + error.getMessage());
+            }
+            mongoTemplate.remove(new Query(Criteria.where("productId").in(orphanedIds)), Product.class);
+            inserted.removeIf(product -> orphanedIds.contains(product.getProductId()));
+        }
+
+        inserted.forEach(productSearchIndex::index);
+        report.imported += inserted.size();
+        log.debug("Imported chunk: {} of {} products", inserted.size(), rows.size());
+    }
+
+    private List<BulkWriteError> insertUnordered(Class<?> entityClass, List<?> documents) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        bulkOps.insert(documents);
+        try {
+            bulkOps.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors();
+        }
+    }
+
+    private record PendingRow(long line, CreateProductRequest request) {
+    }
+
+    private static final class ImportReport {
+        private final List<ProductImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private void error(long line, String sku, ErrorCode errorCode, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ProductImportError.builder()
+                        .line(line)
+                        .sku(sku)
+                        .errorCode(errorCode.name())
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package com.productservice.service;
 
+import com.productservice.cache.ProductCache;
 import com.productservice.dto.request.CreateProductRequest;
 import com.productservice.dto.request.UpdateProductRequest;
+import com.productservice.dto.response.CursorPageResponse;
 import com.productservice.dto.response.PageResponse;
+import com.productservice.dto.response.ProductBatchResponse;
 import com.productservice.dto.response.ProductResponse;
+import com.productservice.dto.response.ProductSuggestion;
 import com.productservice.entity.Inventory;
 import com.productservice.entity.Product;
+import com.productservice.exception.BusinessException;
 import com.productservice.exception.ConflictException;
 import com.productservice.exception.ErrorCode;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.InventoryRepository;
+import com.productservice.repository.ProductFilter;
 import com.productservice.repository.ProductRepository;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +54,13 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ObjectMapper objectMapper;
+
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_SUGGEST_LIMIT = 20;
 
     @Transactional
     public ProductResponse createProduct(CreateProductRequest request) {
@@ -54,6 +85,8 @@ public class ProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        productSuggestIndex.index(savedProduct);
 
         Inventory inventory = Inventory.builder()
                 .productId(productId)
@@ -95,28 +128,78 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        productCache.invalidate(productId);
+        productSearchIndex.index(updatedProduct);
+        productSuggestIndex.index(updatedProduct);
         log.info("Updated product with ID: {}", productId);
         return mapToResponse(updatedProduct);
     }
 
     public ProductResponse getProductById(String productId) {
+        return productCache.getById(productId, this::loadProduct);
+    }
+
+    public ProductResponse getProductBySku(String sku) {
+        // The SKU only resolves the product ID; the product itself is read by ID so it shares the ID cache entry
+        return productCache.getBySku(sku, this::loadProductIdBySku, this::loadProduct);
+    }
+
+    private ProductResponse loadProduct(String productId) {
         log.info("Fetching product with ID: {}", productId);
 
         Product product = productRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PRODUCT_NOT_FOUND,
                         "Product not found with ID: " + productId));
-
         return mapToResponse(product);
     }
 
-    public ProductResponse getProductBySku(String sku) {
+    private String loadProductIdBySku(String sku) {
         log.info("Fetching product with SKU: {}", sku);
 
-        Product product = productRepository.findBySku(sku)
+        return productRepository.findBySku(sku)
+                .map(Product::getProductId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.PRODUCT_NOT_FOUND,
                         "Product not found with SKU: " + sku));
+    }
 
-        return mapToResponse(product);
+    public ProductBatchResponse getProductsByIds(List<String> productIds) {
+        Set<String> requestedIds = new LinkedHashSet<>(productIds);
+        if (requestedIds.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(ErrorCode.BATCH_TOO_LARGE,
+                    "At most " + MAX_BATCH_SIZE + " product IDs can be requested at once");
+        }
+        log.info("Fetching {} products by ID", requestedIds.size());
+
+        Map<String, Product> productsById = productRepository.findByProductIdIn(requestedIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        List<ProductResponse> products = new ArrayList<>(productsById.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String productId : requestedIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                products.add(mapToResponse(product));
+            } else {
+                missingIds.add(productId);
+            }
+        }
+
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "Suggestion limit must be between 1 and " + MAX_SUGGEST_LIMIT);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        log.debug("Suggesting up to {} products for prefix: {}", limit, prefix);
+        return productSuggestIndex.suggest(prefix.strip(), limit);
     }
 
     public PageResponse<ProductResponse> listProducts(int page, int size, String sortBy, String sortDir,
@@ -130,13 +213,17 @@ public class ProductService {
                 : Sort.by(sortBy != null ? sortBy : "createdAt").ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> productPage;
-
-        if (q != null && !q.isBlank()) {
-            productPage = productRepository.searchByText(q, pageable);
-        } else {
-            productPage = findProductsWithFilters(categoryId, active, minPrice, maxPrice, pageable);
-        }
+        ProductFilter filter = ProductFilter.builder()
+                .categoryId(categoryId)
+                .active(active)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .text(q)
+                .build();
+        // Without an explicit sort, in-memory search results are ordered by relevance
+        Page<Product> productPage = filter.hasText() && productSearchIndex.isReady()
+                ? productSearchIndex.search(filter, sortBy != null ? pageable : PageRequest.of(page, size))
+                : productRepository.findByFilter(filter, pageable);
 
         return PageResponse.<ProductResponse>builder()
                 .content(productPage.getContent().stream().map(this::mapToResponse).toList())
@@ -149,17 +236,89 @@ public class ProductService {
                 .build();
     }
 
-    private Page<Product> findProductsWithFilters(String categoryId, Boolean active,
-                                                   BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        if (categoryId != null && active != null) {
-            return productRepository.findByCategoryIdAndActive(categoryId, active, pageable);
-        } else if (categoryId != null) {
-            return productRepository.findByCategoryId(categoryId, pageable);
-        } else if (active != null) {
-            return productRepository.findByActive(active, pageable);
-        } else {
-            return productRepository.findAll(pageable);
+    public CursorPageResponse<ProductResponse> listProductsAfter(String after, int size, String sortBy, String sortDir,
+                                                                 String categoryId, Boolean active, String q,
+                                                                 BigDecimal minPrice, BigDecimal maxPrice) {
+        log.info("Listing products by cursor - size: {}, categoryId: {}, active: {}, q: {}",
+                size, categoryId, active, q);
+
+        if (size < 1) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Page size must be at least 1");
+        }
+
+        ProductCursor cursor = after != null && !after.isBlank()
+                ? ProductCursor.decode(after)
+                : ProductCursor.first(ProductCursor.SortField.fromField(sortBy != null ? sortBy : "createdAt"),
+                        sortDir != null && sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC);
+        String sortField = cursor.getSortField().getField();
+        boolean ascending = cursor.getDirection().isAscending();
+
+        Criteria keyset = null;
+        if (!cursor.isFirstPage()) {
+            Criteria beyondValue = ascending
+                    ? Criteria.where(sortField).gt(cursor.getLastValue())
+                    : Criteria.where(sortField).lt(cursor.getLastValue());
+            Criteria sameValueBeyondId = ascending
+                    ? Criteria.where(sortField).is(cursor.getLastValue()).and("id").gt(cursor.lastIdValue())
+                    : Criteria.where(sortField).is(cursor.getLastValue()).and("id").lt(cursor.lastIdValue());
+            keyset = new Criteria().orOperator(beyondValue, sameValueBeyondId);
+        }
+
+        ProductFilter filter = ProductFilter.builder()
+                .categoryId(categoryId)
+                .active(active)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .text(q)
+                .build();
+        List<Product> products = productRepository.findByFilterAfter(filter, keyset,
+                Sort.by(cursor.getDirection(), sortField, "id"), size + 1);
+        boolean hasNext = products.size() > size;
+        List<Product> pageContent = hasNext ? products.subList(0, size) : products;
+
+        String nextCursor = hasNext
+                ? ProductCursor.after(cursor.getSortField(), cursor.getDirection(),
+                        pageContent.get(pageContent.size() - 1)).encode()
+                : null;
+
+        return CursorPageResponse.<ProductResponse>builder()
+                .content(pageContent.stream().map(this::mapToResponse).toList())
+                .size(pageContent.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public long exportProducts(String categoryId, Boolean active, String q, BigDecimal minPrice,
+                               BigDecimal maxPrice, OutputStream outputStream) throws IOException {
+        log.info("Exporting products with filters - categoryId: {}, active: {}, q: {}", categoryId, active, q);
+        long startTime = System.currentTimeMillis();
+
+        ProductFilter filter = ProductFilter.builder()
+                .categoryId(categoryId)
+                .active(active)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .text(q)
+                .build();
+        // Flushing is left to the generator's buffer so a slow client only blocks the write, not the whole export
+        ObjectWriter writer = objectMapper.writerFor(ProductResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamByFilter(filter);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, mapToResponse(iterator.next()));
+                generator.writeRaw('\n');
+                count++;
+            }
         }
+
+        log.info("Exported {} products in {}ms", count, System.currentTimeMillis() - startTime);
+        return count;
     }
 
     @Transactional
@@ -172,12 +331,15 @@ public class ProductService {
 
         product.setActive(false);
         Product updatedProduct = productRepository.save(product);
+        productCache.invalidate(productId);
+        productSearchIndex.index(updatedProduct);
+        productSuggestIndex.index(updatedProduct);
 
         log.info("Deactivated product with ID: {}", productId);
         return mapToResponse(updatedProduct);
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder()
                 .productId(product.getProductId())
                 .sku(product.getSku())
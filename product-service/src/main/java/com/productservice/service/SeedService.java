@@ -1,5 +1,6 @@
 package com.productservice.service;
 
+import com.productservice.cache.ProductCache;
 import com.productservice.entity.Category;
 import com.productservice.entity.Inventory;
 import com.productservice.entity.Product;
@@ -8,18 +9,30 @@ import com.productservice.repository.CategoryRepository;
 import com.productservice.repository.InventoryRepository;
 import com.productservice.repository.ProductRepository;
 import com.productservice.repository.SeedRunRepository;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
 import com.productservice.seed.DataGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -32,8 +45,18 @@ public class SeedService {
     private final ProductRepository productRepository;
     private final InventoryRepository inventoryRepository;
     private final SeedRunRepository seedRunRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
 
-    private static final int CHUNK_SIZE = 300;
+    private static final DataGenerator.ProductChunk END_OF_CHUNKS =
+            new DataGenerator.ProductChunk(List.of(), List.of());
+
+    @Value("${app.seed.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.seed.writer-threads:0}")
+    private int writerThreads;
 
     public SeedRun seed(int productCount, long seed, boolean reset) {
         long startTime = System.currentTimeMillis();
@@ -46,27 +69,34 @@ public class SeedService {
 
             if (!reset && hasExistingData()) {
                 log.info("Data already exists and reset=false, skipping seed");
-                return createSeedRun(seed, productCount, 0, "SKIPPED", "Data already exists. Use reset=true to clear and reseed.");
+                return createSeedRun(seed, productCount, 0, null, "SKIPPED", "Data already exists. Use reset=true to clear and reseed.");
             }
 
-            DataGenerator.GeneratedData data = dataGenerator.generate(seed, productCount);
-
-            insertCategories(data.getCategories());
-            insertProducts(data.getProducts());
-            insertInventories(data.getInventories());
+            List<Category> categories = dataGenerator.generateCategories();
+            insertCategories(categories);
+            try {
+                // Collections were just emptied on reset, so there is nothing to upsert against
+                writeProducts(seed, productCount, categories, reset);
+            } finally {
+                productCache.invalidateAll();
+                productSearchIndex.rebuild();
+                productSuggestIndex.requestRebuild();
+            }
 
             long durationMs = System.currentTimeMillis() - startTime;
-            log.info("Seed operation completed in {}ms: {} categories, {} products, {} inventories",
-                    durationMs, data.getCategories().size(), data.getProducts().size(), data.getInventories().size());
+            long documentCount = categories.size() + 2L * productCount;
+            long docsPerSecond = documentCount * 1000 / Math.max(durationMs, 1);
+            log.info("Seed operation completed in {}ms: {} categories, {} products, {} inventories ({} docs/s)",
+                    durationMs, categories.size(), productCount, productCount, docsPerSecond);
 
-            return createSeedRun(seed, productCount, durationMs, "SUCCESS",
+            return createSeedRun(seed, productCount, durationMs, docsPerSecond, "SUCCESS",
                     String.format("Seeded %d categories, %d products, %d inventories",
-                            data.getCategories().size(), data.getProducts().size(), data.getInventories().size()));
+                            categories.size(), productCount, productCount));
 
         } catch (Exception e) {
             long durationMs = System.currentTimeMillis() - startTime;
             log.error("Seed operation failed after {}ms: {}", durationMs, e.getMessage(), e);
-            return createSeedRun(seed, productCount, durationMs, "FAILED", e.getMessage());
+            return createSeedRun(seed, productCount, durationMs, null, "FAILED", e.getMessage());
         }
     }
 
@@ -75,6 +105,7 @@ public class SeedService {
         mongoTemplate.remove(new Query(), Product.class);
         mongoTemplate.remove(new Query(), Category.class);
         mongoTemplate.remove(new Query(), Inventory.class);
+        productCache.invalidateAll();
         log.info("Existing data cleared");
     }
 
@@ -85,86 +116,147 @@ public class SeedService {
     private void insertCategories(List<Category> categories) {
         log.info("Inserting {} categories...", categories.size());
 
-        for (int i = 0; i < categories.size(); i += CHUNK_SIZE) {
-            int end = Math.min(i + CHUNK_SIZE, categories.size());
-            List<Category> chunk = categories.subList(i, end);
-
-            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Category.class);
-            for (Category category : chunk) {
-                Query query = new Query(Criteria.where("categoryId").is(category.getCategoryId()));
-                bulkOps.upsert(query, new org.springframework.data.mongodb.core.query.Update()
-                        .set("categoryId", category.getCategoryId())
-                        .set("name", category.getName())
-                        .set("description", category.getDescription())
-                        .setOnInsert("createdAt", Instant.now())
-                        .set("updatedAt", Instant.now()));
-            }
-            bulkOps.execute();
-            log.debug("Inserted category chunk {}-{}", i, end);
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Category.class);
+        for (Category category : categories) {
+            Query query = new Query(Criteria.where("categoryId").is(category.getCategoryId()));
+            bulkOps.upsert(query, new Update()
+                    .set("categoryId", category.getCategoryId())
+                    .set("name", category.getName())
+                    .set("description", category.getDescription())
+                    .setOnInsert("createdAt", Instant.now())
+                    .set("updatedAt", Instant.now()));
         }
+        bulkOps.execute();
     }
 
-    private void insertProducts(List<Product> products) {
-        log.info("Inserting {} products in chunks of {}...", products.size(), CHUNK_SIZE);
-
-        for (int i = 0; i < products.size(); i += CHUNK_SIZE) {
-            int end = Math.min(i + CHUNK_SIZE, products.size());
-            List<Product> chunk = products.subList(i, end);
-
-            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
-            for (Product product : chunk) {
-                Query query = new Query(Criteria.where("sku").is(product.getSku()));
-                bulkOps.upsert(query, new org.springframework.data.mongodb.core.query.Update()
-                        .set("productId", product.getProductId())
-                        .set("sku", product.getSku())
-                        .set("name", product.getName())
-                        .set("description", product.getDescription())
-                        .set("categoryId", product.getCategoryId())
-                        .set("price", product.getPrice())
-                        .set("currency", product.getCurrency())
-                        .set("active", product.isActive())
-                        .setOnInsert("createdAt", product.getCreatedAt())
-                        .set("updatedAt", product.getUpdatedAt()));
-            }
-            bulkOps.execute();
+    private void writeProducts(long seed, int productCount, List<Category> categories, boolean plainInserts)
+            throws InterruptedException {
+        int writers = writerThreads > 0 ? writerThreads : Runtime.getRuntime().availableProcessors();
+        log.info("Writing {} products in chunks of {} with {} writers using {}",
+                productCount, chunkSize, writers, plainInserts ? "inserts" : "upserts");
 
-            if ((i / CHUNK_SIZE + 1) % 5 == 0 || end == products.size()) {
-                log.info("Inserted products: {}/{}", end, products.size());
+        // The generator blocks once every writer is busy and the queue is full, so heap use does not grow with productCount
+        BlockingQueue<DataGenerator.ProductChunk> queue = new ArrayBlockingQueue<>(writers * 2);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(writers,
+                runnable -> new Thread(runnable, "seed-writer-" + threadNumber.incrementAndGet()));
+
+        try {
+            for (int i = 0; i < writers; i++) {
+                executor.execute(() -> drainChunks(queue, failure, written, productCount, plainInserts));
+            }
+            dataGenerator.generateProducts(seed, productCount, categories, chunkSize, chunk -> {
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+                try {
+                    queue.put(chunk);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while queueing seed data", e);
+                }
+            });
+        } finally {
+            for (int i = 0; i < writers; i++) {
+                queue.put(END_OF_CHUNKS);
             }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
         }
     }
 
-    private void insertInventories(List<Inventory> inventories) {
-        log.info("Inserting {} inventory records in chunks of {}...", inventories.size(), CHUNK_SIZE);
-
-        for (int i = 0; i < inventories.size(); i += CHUNK_SIZE) {
-            int end = Math.min(i + CHUNK_SIZE, inventories.size());
-            List<Inventory> chunk = inventories.subList(i, end);
-
-            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
-            for (Inventory inventory : chunk) {
-                Query query = new Query(Criteria.where("productId").is(inventory.getProductId()));
-                bulkOps.upsert(query, new org.springframework.data.mongodb.core.query.Update()
-                        .set("productId", inventory.getProductId())
-                        .set("stockQty", inventory.getStockQty())
-                        .set("reservedQty", inventory.getReservedQty())
-                        .set("updatedAt", Instant.now()));
-            }
-            bulkOps.execute();
+    private void drainChunks(BlockingQueue<DataGenerator.ProductChunk> queue, AtomicReference<RuntimeException> failure,
+                             AtomicInteger written, int productCount, boolean plainInserts) {
+        try {
+            DataGenerator.ProductChunk chunk;
+            while ((chunk = queue.take()) != END_OF_CHUNKS) {
+                // After a failure keep taking chunks so the generator is never left blocked on a full queue
+                if (failure.get() != null) {
+                    continue;
+                }
+                try {
+                    if (plainInserts) {
+                        insertDocuments(Product.class, chunk.getProducts());
+                        chunk.getInventories().forEach(inventory -> inventory.setUpdatedAt(Instant.now()));
+                        insertDocuments(Inventory.class, chunk.getInventories());
+                    } else {
+                        upsertProducts(chunk.getProducts());
+                        upsertInventories(chunk.getInventories());
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    continue;
+                }
 
-            if ((i / CHUNK_SIZE + 1) % 5 == 0 || end == inventories.size()) {
-                log.info("Inserted inventories: {}/{}", end, inventories.size());
+                int total = written.addAndGet(chunk.getProducts().size());
+                int logEvery = chunkSize * 10;
+                if ((total - chunk.getProducts().size()) / logEvery != total / logEvery || total == productCount) {
+                    log.info("Inserted products and inventories: {}/{}", total, productCount);
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void insertDocuments(Class<?> entityClass, List<?> entities) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+        for (Object entity : entities) {
+            // Converted up front so auditing does not replace the generated createdAt/updatedAt values
+            Document document = new Document();
+            mongoTemplate.getConverter().write(entity, document);
+            bulkOps.insert(document);
+        }
+        bulkOps.execute();
+    }
+
+    private void upsertProducts(List<Product> products) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Product product : products) {
+            Query query = new Query(Criteria.where("sku").is(product.getSku()));
+            bulkOps.upsert(query, new Update()
+                    .set("productId", product.getProductId())
+                    .set("sku", product.getSku())
+                    .set("name", product.getName())
+                    .set("description", product.getDescription())
+                    .set("categoryId", product.getCategoryId())
+                    .set("price", product.getPrice())
+                    .set("currency", product.getCurrency())
+                    .set("active", product.isActive())
+                    .setOnInsert("createdAt", product.getCreatedAt())
+                    .set("updatedAt", product.getUpdatedAt()));
+        }
+        bulkOps.execute();
+    }
+
+    private void upsertInventories(List<Inventory> inventories) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class);
+        for (Inventory inventory : inventories) {
+            Query query = new Query(Criteria.where("productId").is(inventory.getProductId()));
+            bulkOps.upsert(query, new Update()
+                    .set("productId", inventory.getProductId())
+                    .set("stockQty", inventory.getStockQty())
+                    .set("reservedQty", inventory.getReservedQty())
+                    .set("updatedAt", Instant.now()));
         }
+        bulkOps.execute();
     }
 
-    private SeedRun createSeedRun(long seed, int productCount, long durationMs, String status, String message) {
+    private SeedRun createSeedRun(long seed, int productCount, long durationMs, Long docsPerSecond,
+                                  String status, String message) {
         SeedRun seedRun = SeedRun.builder()
                 .lastSeedTime(Instant.now())
                 .seed(seed)
                 .productCount(productCount)
                 .categoryCount(DataGenerator.getCategoryCount())
                 .durationMs(durationMs)
+                .docsPerSecond(docsPerSecond)
                 .status(status)
                 .message(message)
                 .build();
@@ -2,6 +2,8 @@ package com.productservice.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.productservice.dto.request.CreateProductRequest;
+import com.productservice.dto.request.ReserveBatchRequest;
+import com.productservice.dto.request.ReserveItemRequest;
 import com.productservice.dto.request.UpdateInventoryRequest;
 import com.productservice.dto.response.InventoryResponse;
 import com.productservice.dto.response.ProductResponse;
@@ -25,7 +27,13 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -207,4 +215,109 @@ class InventoryIntegrationTest {
         assertThat(afterRelease.getReservedQty()).isEqualTo(0);
         assertThat(afterRelease.getAvailableQty()).isEqualTo(100);
     }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent reservations")
+    void reserveStock_Concurrent_NeverOversells() throws Exception {
+        int attempts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> mockMvc.perform(
+                                post("/api/v1/inventory/{productId}/reserve", testProductId).param("qty", "10"))
+                        .andReturn().getResponse().getStatus()));
+            }
+
+            int succeeded = 0;
+            for (Future<Integer> result : results) {
+                if (result.get(30, TimeUnit.SECONDS) == 200) {
+                    succeeded++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(10);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/api/v1/inventory/{productId}", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQty").value(100))
+                .andExpect(jsonPath("$.availableQty").value(0));
+    }
+
+    @Test
+    @DisplayName("Should reserve a batch of items atomically")
+    void reserveBatch_Success() throws Exception {
+        String otherProductId = createProduct(20);
+        ReserveBatchRequest request = ReserveBatchRequest.builder()
+                .items(List.of(
+                        ReserveItemRequest.builder().productId(testProductId).qty(30).build(),
+                        ReserveItemRequest.builder().productId(otherProductId).qty(5).build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/inventory/reserve-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(testProductId))
+                .andExpect(jsonPath("$[0].reservedQty").value(30))
+                .andExpect(jsonPath("$[1].productId").value(otherProductId))
+                .andExpect(jsonPath("$[1].availableQty").value(15));
+    }
+
+    @Test
+    @DisplayName("Should leave stock untouched when any batch item is insufficient")
+    void reserveBatch_InsufficientStock_ReservesNothing() throws Exception {
+        String otherProductId = createProduct(5);
+        ReserveBatchRequest request = ReserveBatchRequest.builder()
+                .items(List.of(
+                        ReserveItemRequest.builder().productId(testProductId).qty(30).build(),
+                        ReserveItemRequest.builder().productId(otherProductId).qty(10).build()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/inventory/reserve-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_STOCK"));
+
+        mockMvc.perform(get("/api/v1/inventory/{productId}", testProductId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQty").value(0));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with more items than the limit")
+    void reserveBatch_TooManyItems_ReturnsBadRequest() throws Exception {
+        List<ReserveItemRequest> items = new ArrayList<>();
+        for (int i = 0; i <= ReserveBatchRequest.MAX_ITEMS; i++) {
+            items.add(ReserveItemRequest.builder().productId(testProductId).qty(1).build());
+        }
+
+        mockMvc.perform(post("/api/v1/inventory/reserve-batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ReserveBatchRequest.builder().items(items).build())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("VALIDATION_ERROR"));
+    }
+
+    private String createProduct(int initialStockQty) throws Exception {
+        CreateProductRequest productRequest = CreateProductRequest.builder()
+                .sku("INV-TEST-SKU-" + UUID.randomUUID().toString().substring(0, 8))
+                .name("Inventory Test Product")
+                .categoryId(testCategory.getCategoryId())
+                .price(new BigDecimal("9.99"))
+                .initialStockQty(initialStockQty)
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ProductResponse.class)
+                .getProductId();
+    }
 }
@@ -1,18 +1,30 @@
 package com.productservice.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.productservice.config.PriceStorageMigration;
 import com.productservice.dto.request.CreateProductRequest;
+import com.productservice.dto.request.ProductBatchRequest;
 import com.productservice.dto.response.ProductResponse;
 import com.productservice.entity.Category;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
 import com.productservice.repository.CategoryRepository;
 import com.productservice.repository.InventoryRepository;
+import com.productservice.repository.ProductFilter;
 import com.productservice.repository.ProductRepository;
+import com.productservice.search.ProductSuggestIndex;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -22,14 +34,19 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.cache.product.change-stream.enabled=true")
 @AutoConfigureMockMvc
 @Testcontainers(disabledWithoutDocker = true)
 class ProductIntegrationTest {
@@ -57,6 +74,15 @@ class ProductIntegrationTest {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private PriceStorageMigration priceStorageMigration;
+
     private Category testCategory;
 
     @BeforeEach
@@ -181,6 +207,233 @@ class ProductIntegrationTest {
                 .andExpect(jsonPath("$.sku").value("GET-BY-ID-SKU"));
     }
 
+    @Test
+    @DisplayName("Should get products in batch with missing IDs")
+    void getProductsByIds_Success() throws Exception {
+        ProductResponse first = createProduct("BATCH-SKU-1");
+        ProductResponse second = createProduct("BATCH-SKU-2");
+
+        mockMvc.perform(get("/api/v1/products/batch")
+                        .param("ids", second.getProductId() + ",missing-id," + first.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.products[0].productId").value(second.getProductId()))
+                .andExpect(jsonPath("$.products[1].productId").value(first.getProductId()))
+                .andExpect(jsonPath("$.missingIds[0]").value("missing-id"));
+
+        ProductBatchRequest request = ProductBatchRequest.builder()
+                .ids(List.of(first.getProductId(), second.getProductId()))
+                .build();
+
+        mockMvc.perform(post("/api/v1/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should suggest products by name word or SKU prefix, most reserved first")
+    void suggestProducts_RanksByReservations() throws Exception {
+        ProductResponse quiet = createProduct("SUGGEST-SKU-1");
+        ProductResponse popular = createProduct("SUGGEST-SKU-2");
+        createProduct("OTHER-SKU-1");
+
+        Inventory inventory = inventoryRepository.findByProductId(popular.getProductId()).orElseThrow();
+        inventory.setReservedQty(3);
+        inventoryRepository.save(inventory);
+        productSuggestIndex.rebuild();
+
+        mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "sugg").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].productId").value(popular.getProductId()))
+                .andExpect(jsonPath("$[1].productId").value(quiet.getProductId()));
+
+        mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "other-s"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku").value("OTHER-SKU-1"));
+
+        mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "sugg").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should evict cached product when it is changed outside this service")
+    void getProductById_ExternalUpdate_EvictedByChangeStream() throws Exception {
+        ProductResponse created = createProduct("CACHE-SKU-1");
+
+        mockMvc.perform(get("/api/v1/products/{productId}", created.getProductId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Product CACHE-SKU-1"));
+
+        Product product = productRepository.findByProductId(created.getProductId()).orElseThrow();
+        product.setName("Renamed Elsewhere");
+        productRepository.save(product);
+
+        String name = null;
+        for (int attempt = 0; attempt < 50 && !"Renamed Elsewhere".equals(name); attempt++) {
+            Thread.sleep(100);
+            MvcResult result = mockMvc.perform(get("/api/v1/products/{productId}", created.getProductId()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            name = objectMapper.readValue(result.getResponse().getContentAsString(), ProductResponse.class).getName();
+        }
+        assertThat(name).isEqualTo("Renamed Elsewhere");
+    }
+
+    @Test
+    @DisplayName("Should walk every product exactly once with cursor pagination")
+    void listProducts_WithCursor_VisitsAllProducts() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            createProduct("CURSOR-SKU-" + i);
+        }
+
+        List<String> seenIds = new ArrayList<>();
+        String cursor = "";
+        do {
+            MvcResult result = mockMvc.perform(get("/api/v1/products")
+                            .param("after", cursor)
+                            .param("size", "2")
+                            .param("sort", "price")
+                            .param("sortDir", "desc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            page.get("content").forEach(product -> seenIds.add(product.get("productId").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seenIds).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should export matching products as NDJSON, gzip-compressed on request")
+    void exportProducts_StreamsNdjson() throws Exception {
+        createProduct("EXPORT-SKU-1", new BigDecimal("5.00"));
+        createProduct("EXPORT-SKU-2", new BigDecimal("50.00"));
+        createProduct("EXPORT-SKU-3", new BigDecimal("500.00"));
+
+        MvcResult plain = mockMvc.perform(get("/api/v1/products/export").param("minPrice", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(plain))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines().map(this::readSku).toList())
+                .containsExactlyInAnyOrder("EXPORT-SKU-2", "EXPORT-SKU-3");
+
+        MvcResult compressed = mockMvc.perform(get("/api/v1/products/export").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] gzipped = mockMvc.perform(asyncDispatch(compressed))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()).hasSize(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON products with inventory and report conflicting lines")
+    void importProducts_Ndjson_CreatesProductsAndInventory() throws Exception {
+        createProduct("IMPORT-SKU-1");
+        String body = String.join("\n",
+                "{\"sku\":\"IMPORT-SKU-1\",\"name\":\"Already There\",\"categoryId\":\"" + testCategory.getCategoryId() + "\",\"price\":1}",
+                "{\"sku\":\"IMPORT-SKU-2\",\"name\":\"Imported\",\"categoryId\":\"" + testCategory.getCategoryId() + "\",\"price\":12.50,\"initialStockQty\":7}");
+
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(1))
+                .andExpect(jsonPath("$.errors[0].errorCode").value("PRODUCT_SKU_CONFLICT"));
+
+        Product imported = productRepository.findBySku("IMPORT-SKU-2").orElseThrow();
+        assertThat(imported.getPrice()).isEqualByComparingTo("12.50");
+        assertThat(inventoryRepository.findByProductId(imported.getProductId()).orElseThrow().getStockQty()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should return 400 for an invalid cursor")
+    void listProducts_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("after", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    @DisplayName("Should combine category, active and price range filters")
+    void listProducts_WithPriceRange_FiltersNumerically() throws Exception {
+        createProduct("PRICE-SKU-1", new BigDecimal("5.00"));
+        createProduct("PRICE-SKU-2", new BigDecimal("50.00"));
+        createProduct("PRICE-SKU-3", new BigDecimal("500.00"));
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("categoryId", testCategory.getCategoryId())
+                        .param("active", "true")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].sku").value("PRICE-SKU-2"));
+    }
+
+    @Test
+    @DisplayName("Should convert string prices left by earlier versions so price filters match them")
+    void priceStorageMigration_ConvertsStringPrices() throws Exception {
+        createProduct("LEGACY-SKU-1", new BigDecimal("50.00"));
+        mongoTemplate.getCollection("products").updateOne(new Document("sku", "LEGACY-SKU-1"),
+                new Document("$set", new Document("price", "50.00")));
+
+        assertThat(priceStorageMigration.migrate()).isEqualTo(1);
+        assertThat(priceStorageMigration.migrate()).isZero();
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].price").value(50.0));
+    }
+
+    @Test
+    @DisplayName("Should use an index for the common filter shapes")
+    void listProducts_CommonFilterShapes_DoNotScanCollection() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            createProduct("PLAN-SKU-" + i, new BigDecimal(10 + i));
+        }
+
+        List<ProductFilter> shapes = List.of(
+                ProductFilter.builder().build(),
+                ProductFilter.builder().active(true).build(),
+                ProductFilter.builder().categoryId(testCategory.getCategoryId()).build(),
+                ProductFilter.builder().categoryId(testCategory.getCategoryId()).active(true).build(),
+                ProductFilter.builder().categoryId(testCategory.getCategoryId()).active(true)
+                        .minPrice(new BigDecimal("12")).maxPrice(new BigDecimal("20")).build(),
+                ProductFilter.builder().active(true).minPrice(new BigDecimal("15")).build());
+
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Product.class);
+        for (ProductFilter shape : shapes) {
+            Query query = new Query();
+            shape.toCriteria().forEach(query::addCriteria);
+            Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+            Document plan = mongoTemplate.getCollection("products").find(filter)
+                    .sort(new Document("createdAt", -1))
+                    .explain();
+
+            assertThat(plan.toJson()).as("plan for %s", filter.toJson()).doesNotContain("COLLSCAN");
+        }
+    }
+
     @Test
     @DisplayName("Should return 404 NOT FOUND for non-existent product")
     void getProductById_NotFound_Returns404() throws Exception {
@@ -266,4 +519,33 @@ class ProductIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(header().exists("X-Correlation-Id"));
     }
+
+    private String readSku(String line) {
+        try {
+            return objectMapper.readTree(line).get("sku").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ProductResponse createProduct(String sku) throws Exception {
+        return createProduct(sku, new BigDecimal("19.99"));
+    }
+
+    private ProductResponse createProduct(String sku, BigDecimal price) throws Exception {
+        CreateProductRequest request = CreateProductRequest.builder()
+                .sku(sku)
+                .name("Product " + sku)
+                .categoryId(testCategory.getCategoryId())
+                .price(price)
+                .build();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ProductResponse.class);
+    }
 }
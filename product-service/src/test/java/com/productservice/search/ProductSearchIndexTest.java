@@ -0,0 +1,171 @@
+package com.productservice.search;
+
+import com.productservice.entity.Category;
+import com.productservice.entity.Product;
+import com.productservice.repository.CategoryRepository;
+import com.productservice.repository.ProductFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex(true, mongoTemplate, categoryRepository);
+
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                Category.builder().categoryId("cat-audio").name("Audio").build(),
+                Category.builder().categoryId("cat-home").name("Home").build()));
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(Stream.of(
+                product("m1", "p1", "AUD-001", "Wireless Headphones", "Over-ear with noise cancelling", "cat-audio", "199.00", true),
+                product("m2", "p2", "AUD-002", "Bluetooth Speaker", "Pairs with wireless headphones", "cat-audio", "79.00", true),
+                product("m3", "p3", "HOM-001", "Ceramic Vase", "Handmade vase for the living room", "cat-home", "35.00", true),
+                product("m4", "p4", "AUD-003", "Wireless Earbuds", "Compact true wireless earbuds", "cat-audio", "129.00", false)));
+
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should rank a match in the name above a match in the description")
+    void search_RanksNameMatchesFirst() {
+        Page<Product> result = searchIndex.search(filter("headphones"), PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(Product::getProductId).containsExactly("p1", "p2");
+    }
+
+    @Test
+    @DisplayName("Should match partially typed words and single-character typos")
+    void search_MatchesPrefixesAndTypos() {
+        assertThat(searchIndex.search(filter("headph"), PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactly("p1", "p2");
+        assertThat(searchIndex.search(filter("ceramc"), PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactly("p3");
+    }
+
+    @Test
+    @DisplayName("Should apply the listing filters, explicit sort and pagination to the hits")
+    void search_AppliesFiltersSortAndPaging() {
+        ProductFilter activeAudio = ProductFilter.builder().text("audio").categoryId("cat-audio").active(true).build();
+
+        Page<Product> firstPage = searchIndex.search(activeAudio, PageRequest.of(0, 1, Sort.by("price").ascending()));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.getContent()).extracting(Product::getProductId).containsExactly("p2");
+
+        ProductFilter cheapWireless = ProductFilter.builder().text("wireless").maxPrice(new BigDecimal("150.00")).build();
+        assertThat(searchIndex.search(cheapWireless, PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactlyInAnyOrder("p2", "p4");
+    }
+
+    @Test
+    @DisplayName("Should reflect re-indexed, removed and re-categorised products")
+    void index_AppliesIncrementalUpdates() {
+        searchIndex.index(product("m3", "p3", "HOM-001", "Ceramic Lamp", "Handmade lamp", "cat-home", "45.00", true));
+        assertThat(searchIndex.search(filter("vase"), PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(searchIndex.search(filter("lamp"), PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactly("p3");
+
+        searchIndex.removeByMongoId("m3");
+        assertThat(searchIndex.search(filter("lamp"), PageRequest.of(0, 10)).getContent()).isEmpty();
+
+        searchIndex.updateCategoryName("cat-audio", "Sound");
+        assertThat(searchIndex.search(filter("sound"), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should keep writes that arrive while a rebuild is streaming products")
+    void rebuild_ReplaysWritesMadeDuringRebuild() {
+        Product added = product("m5", "p5", "AUD-004", "Wireless Microphone", "Clip-on", "cat-audio", "59.00", true);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            searchIndex.index(added);
+            searchIndex.removeByMongoId("m1");
+            return Stream.of(
+                    product("m1", "p1", "AUD-001", "Wireless Headphones", "Over-ear", "cat-audio", "199.00", true),
+                    product("m2", "p2", "AUD-002", "Bluetooth Speaker", "Portable", "cat-audio", "79.00", true));
+        });
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.search(filter("wireless"), PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactly("p5");
+    }
+
+    @Test
+    @DisplayName("Should run overlapping rebuilds one after the other")
+    void rebuild_SerializesConcurrentRebuilds() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Product added = product("m5", "p5", "AUD-004", "Wireless Microphone", "Clip-on", "cat-audio", "59.00", true);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            streaming.countDown();
+            searchIndex.index(added);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return Stream.of(product("m1", "p1", "AUD-001", "Wireless Headphones", "Over-ear", "cat-audio", "199.00", true));
+        });
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(searchIndex::rebuild);
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(searchIndex::rebuild);
+        Thread.sleep(100);
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(searchIndex.search(filter("wireless"), PageRequest.of(0, 10)).getContent())
+                .extracting(Product::getProductId).containsExactlyInAnyOrder("p1", "p5");
+    }
+
+    private static ProductFilter filter(String text) {
+        return ProductFilter.builder().text(text).build();
+    }
+
+    private static Product product(String id, String productId, String sku, String name, String description,
+                                   String categoryId, String price, boolean active) {
+        return Product.builder()
+                .id(id)
+                .productId(productId)
+                .sku(sku)
+                .name(name)
+                .description(description)
+                .categoryId(categoryId)
+                .price(new BigDecimal(price))
+                .currency("USD")
+                .active(active)
+                .build();
+    }
+}
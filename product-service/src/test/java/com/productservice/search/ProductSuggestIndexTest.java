@@ -0,0 +1,148 @@
+package com.productservice.search;
+
+import com.productservice.dto.response.ProductSuggestion;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new ProductSuggestIndex(mongoTemplate, Duration.ofSeconds(1), Duration.ofSeconds(5),
+                Duration.ofMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Should match the start of any name word or the SKU, ranked by reserved quantity")
+    void suggest_MatchesWordAndSkuPrefixesByPopularity() {
+        build(List.of(
+                product("p1", "AUD-00001", "Sony Wireless Headphones"),
+                product("p2", "AUD-00002", "Bose Wireless Earbuds"),
+                product("p3", "HOM-00001", "Wicker Basket")),
+                List.of(inventory("p2", 7), inventory("p3", 2)));
+
+        assertThat(suggestIndex.suggest("wi", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p2", "p3", "p1");
+        assertThat(suggestIndex.suggest("HEAD", 10)).extracting(ProductSuggestion::getName)
+                .containsExactly("Sony Wireless Headphones");
+        assertThat(suggestIndex.suggest("aud-0000", 1)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p2");
+        assertThat(suggestIndex.suggest("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should list a product once even when several of its keys match")
+    void suggest_DeduplicatesProducts() {
+        build(List.of(product("p1", "PRO-00001", "Pro Keyboard Pro")), List.of());
+
+        assertThat(suggestIndex.suggest("pro", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p1");
+    }
+
+    @Test
+    @DisplayName("Should move products up as reservations are recorded")
+    void recordDemand_ReordersSuggestions() {
+        List<Product> products = new ArrayList<>();
+        IntStream.range(0, 1000).forEach(i -> products.add(
+                product("p" + i, String.format("GAM-%05d", i), "Gaming Mouse " + i)));
+        build(products, List.of(inventory("p10", 5)));
+
+        assertThat(suggestIndex.suggest("gaming", 2)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p10", "p0");
+
+        suggestIndex.recordDemand("p999", 6);
+        assertThat(suggestIndex.suggest("gaming", 2)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p10", "p0");
+        suggestIndex.refresh();
+
+        assertThat(suggestIndex.suggest("gaming", 2)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p999", "p10");
+        assertThat(suggestIndex.suggest("gam-009", 3)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p999", "p900", "p901");
+    }
+
+    @Test
+    @DisplayName("Should apply single product writes without a full rebuild")
+    void index_AppliesUpsertsOnRefresh() {
+        build(List.of(
+                product("p1", "AUD-00001", "Sony Wireless Headphones"),
+                product("p2", "AUD-00002", "Bose Wireless Earbuds")),
+                List.of(inventory("p1", 3)));
+
+        suggestIndex.index(product("p3", "AUD-00003", "Wireless Speaker"));
+        Product renamed = product("p1", "AUD-00001", "Sony Studio Headphones");
+        suggestIndex.index(renamed);
+        Product deactivated = product("p2", "AUD-00002", "Bose Wireless Earbuds");
+        deactivated.setActive(false);
+        suggestIndex.index(deactivated);
+        suggestIndex.recordDemand("p3", 1);
+        suggestIndex.refresh();
+
+        assertThat(suggestIndex.suggest("wireless", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p3");
+        assertThat(suggestIndex.suggest("studio", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p1");
+        assertThat(suggestIndex.suggest("aud", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p1", "p3");
+        verify(mongoTemplate, times(1)).stream(any(Query.class), eq(Product.class));
+    }
+
+    @Test
+    @DisplayName("Should keep demand recorded in memory across a full rebuild")
+    void rebuild_KeepsRecordedDemand() {
+        build(List.of(
+                product("p1", "KEY-00001", "Mechanical Keyboard"),
+                product("p2", "KEY-00002", "Membrane Keyboard")),
+                List.of(inventory("p1", 2)));
+        suggestIndex.recordDemand("p2", 5);
+        suggestIndex.refresh();
+
+        build(List.of(
+                product("p1", "KEY-00001", "Mechanical Keyboard"),
+                product("p2", "KEY-00002", "Membrane Keyboard")),
+                List.of(inventory("p1", 2)));
+
+        assertThat(suggestIndex.suggest("keyboard", 2)).extracting(ProductSuggestion::getProductId)
+                .containsExactly("p2", "p1");
+    }
+
+    private void build(List<Product> products, List<Inventory> inventories) {
+        when(mongoTemplate.stream(any(Query.class), eq(Inventory.class))).thenReturn(inventories.stream());
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(products.stream());
+        suggestIndex.rebuild();
+    }
+
+    private static Product product(String productId, String sku, String name) {
+        return Product.builder().productId(productId).sku(sku).name(name).active(true).build();
+    }
+
+    private static Inventory inventory(String productId, int reservedQty) {
+        return Inventory.builder().productId(productId).reservedQty(reservedQty).build();
+    }
+}
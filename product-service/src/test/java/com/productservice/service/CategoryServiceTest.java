@@ -7,6 +7,7 @@ import com.productservice.entity.Category;
 import com.productservice.exception.ConflictException;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.CategoryRepository;
+import com.productservice.search.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -104,6 +108,7 @@ class CategoryServiceTest {
         assertThat(response).isNotNull();
         verify(categoryRepository).findByCategoryId(testCategory.getCategoryId());
         verify(categoryRepository).save(any(Category.class));
+        verify(productSearchIndex).updateCategoryName(testCategory.getCategoryId(), testCategory.getName());
     }
 
     @Test
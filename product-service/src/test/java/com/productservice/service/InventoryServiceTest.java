@@ -1,26 +1,39 @@
 package com.productservice.service;
 
+import com.productservice.dto.request.ReserveItemRequest;
 import com.productservice.dto.request.UpdateInventoryRequest;
 import com.productservice.dto.response.InventoryResponse;
 import com.productservice.entity.Inventory;
 import com.productservice.exception.BusinessException;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.InventoryRepository;
+import com.productservice.search.ProductSuggestIndex;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +42,12 @@ class InventoryServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -103,62 +122,174 @@ class InventoryServiceTest {
     @Test
     @DisplayName("Should reserve stock successfully when available")
     void reserveStock_Success() {
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(testInventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> {
-            Inventory saved = invocation.getArgument(0);
-            return saved;
-        });
+        testInventory.setReservedQty(50);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(testInventory);
 
         InventoryResponse response = inventoryService.reserveStock(productId, 30);
 
         assertThat(response).isNotNull();
         assertThat(response.getReservedQty()).isEqualTo(50);
 
-        verify(inventoryRepository).findByProductId(productId);
-        verify(inventoryRepository).save(any(Inventory.class));
+        verify(inventoryRepository, never()).findByProductId(productId);
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(productSuggestIndex).recordDemand(productId, 30);
+    }
+
+    @Test
+    @DisplayName("Should guard reservation on available stock in a single conditional update")
+    void reserveStock_UsesConditionalIncrement() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(testInventory);
+
+        inventoryService.reserveStock(productId, 30);
+
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                optionsCaptor.capture(), eq(Inventory.class));
+
+        assertThat(queryCaptor.getValue().getQueryObject().get("productId")).isEqualTo(productId);
+        assertThat(queryCaptor.getValue().getQueryObject().toJson()).contains("$expr", "$gte", "$subtract");
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$inc", Document.class).get("reservedQty"))
+                .isEqualTo(30);
+        assertThat(optionsCaptor.getValue().isReturnNew()).isTrue();
     }
 
     @Test
     @DisplayName("Should throw BusinessException when insufficient stock for reservation")
     void reserveStock_InsufficientStock_ThrowsBusinessException() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(null);
         when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(testInventory));
 
         assertThatThrownBy(() -> inventoryService.reserveStock(productId, 100))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Insufficient stock");
 
-        verify(inventoryRepository).findByProductId(productId);
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when reserving for unknown product")
+    void reserveStock_NotFound_ThrowsResourceNotFoundException() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(null);
+        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> inventoryService.reserveStock(productId, 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("not found");
+    }
+
     @Test
     @DisplayName("Should release stock successfully")
     void releaseStock_Success() {
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(testInventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> {
-            Inventory saved = invocation.getArgument(0);
-            return saved;
-        });
+        testInventory.setReservedQty(10);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(testInventory);
 
         InventoryResponse response = inventoryService.releaseStock(productId, 10);
 
         assertThat(response).isNotNull();
         assertThat(response.getReservedQty()).isEqualTo(10);
 
-        verify(inventoryRepository).findByProductId(productId);
-        verify(inventoryRepository).save(any(Inventory.class));
+        verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
     @Test
     @DisplayName("Should throw BusinessException when releasing more than reserved")
     void releaseStock_ExceedsReserved_ThrowsBusinessException() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class))).thenReturn(null);
         when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(testInventory));
 
         assertThatThrownBy(() -> inventoryService.releaseStock(productId, 50))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Cannot release");
 
-        verify(inventoryRepository).findByProductId(productId);
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
+
+    @Test
+    @DisplayName("Should reserve all items in a batch")
+    void reserveStockBatch_Success() {
+        String otherProductId = UUID.randomUUID().toString();
+        Inventory otherInventory = Inventory.builder()
+                .productId(otherProductId)
+                .stockQty(10)
+                .reservedQty(5)
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(testInventory, otherInventory);
+
+        List<InventoryResponse> response = inventoryService.reserveStockBatch(List.of(
+                ReserveItemRequest.builder().productId(productId).qty(2).build(),
+                ReserveItemRequest.builder().productId(otherProductId).qty(5).build(),
+                ReserveItemRequest.builder().productId(productId).qty(3).build()));
+
+        assertThat(response).extracting(InventoryResponse::getProductId)
+                .containsExactly(productId, otherProductId);
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertThat(updateCaptor.getAllValues().get(0).getUpdateObject().get("$inc", Document.class)
+                .get("reservedQty")).isEqualTo(5);
+        verify(productSuggestIndex).recordDemand(productId, 5);
+        verify(productSuggestIndex).recordDemand(otherProductId, 5);
+    }
+
+    @Test
+    @DisplayName("Should release earlier reservations when a batch item cannot be reserved")
+    void reserveStockBatch_InsufficientStock_ReleasesReservedItems() {
+        String otherProductId = UUID.randomUUID().toString();
+        Inventory otherInventory = Inventory.builder()
+                .productId(otherProductId)
+                .stockQty(1)
+                .reservedQty(1)
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(testInventory, null, testInventory);
+        when(inventoryRepository.findByProductId(otherProductId)).thenReturn(Optional.of(otherInventory));
+
+        assertThatThrownBy(() -> inventoryService.reserveStockBatch(List.of(
+                ReserveItemRequest.builder().productId(productId).qty(2).build(),
+                ReserveItemRequest.builder().productId(otherProductId).qty(5).build())))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Insufficient stock");
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertThat(updateCaptor.getAllValues().get(2).getUpdateObject().get("$inc", Document.class)
+                .get("reservedQty")).isEqualTo(-2);
+        verify(productSuggestIndex, never()).recordDemand(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should release earlier reservations when a batch item fails with a database error")
+    void reserveStockBatch_DatabaseError_ReleasesReservedItems() {
+        String otherProductId = UUID.randomUUID().toString();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(Inventory.class)))
+                .thenReturn(testInventory)
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(testInventory);
+
+        assertThatThrownBy(() -> inventoryService.reserveStockBatch(List.of(
+                ReserveItemRequest.builder().productId(productId).qty(2).build(),
+                ReserveItemRequest.builder().productId(otherProductId).qty(5).build())))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(Inventory.class));
+        assertThat(updateCaptor.getAllValues().get(2).getUpdateObject().get("$inc", Document.class)
+                .get("reservedQty")).isEqualTo(-2);
+        verify(productSuggestIndex, never()).recordDemand(anyString(), anyInt());
+    }
 }
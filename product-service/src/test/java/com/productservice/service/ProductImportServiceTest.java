@@ -0,0 +1,177 @@
+package com.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.productservice.dto.response.ProductImportError;
+import com.productservice.dto.response.ProductImportResponse;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
+import com.productservice.exception.BusinessException;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations productBulkOps;
+
+    @Mock
+    private BulkOperations inventoryBulkOps;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(productBulkOps);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Inventory.class)).thenReturn(inventoryBulkOps);
+    }
+
+    @Test
+    @DisplayName("Should bulk insert valid NDJSON lines and report the others by line number")
+    @SuppressWarnings("unchecked")
+    void importProducts_Ndjson_ReportsPerLineErrors() throws Exception {
+        String body = String.join("\n",
+                "{\"sku\":\"IMP-1\",\"name\":\"Desk Lamp\",\"categoryId\":\"cat-1\",\"price\":19.99,\"initialStockQty\":5}",
+                "{\"sku\":\"IMP-2\",\"name\":\"Floor Lamp\",\"categoryId\":\"cat-1\",\"price\":49.00}",
+                "{not json",
+                "",
+                "{\"sku\":\"IMP-3\",\"name\":\"Shade\",\"categoryId\":\"cat-1\"}",
+                "{\"sku\":\"IMP-1\",\"name\":\"Desk Lamp Again\",\"categoryId\":\"cat-1\",\"price\":1}");
+
+        ProductImportResponse response = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(3L, 5L, 6L);
+        assertThat(response.getErrors()).extracting(ProductImportError::getErrorCode)
+                .containsExactly("VALIDATION_ERROR", "VALIDATION_ERROR", "PRODUCT_SKU_CONFLICT");
+        assertThat(response.getErrors().get(1).getMessage()).isEqualTo("Price is required");
+
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        verify(productBulkOps).insert(products.capture());
+        assertThat(products.getValue()).extracting(Product::getSku).containsExactly("IMP-1", "IMP-2");
+        assertThat(products.getValue()).allSatisfy(product -> {
+            assertThat(product.getId()).isNotNull();
+            assertThat(product.getCurrency()).isEqualTo("USD");
+            assertThat(product.isActive()).isTrue();
+        });
+
+        ArgumentCaptor<List<Inventory>> inventories = ArgumentCaptor.forClass(List.class);
+        verify(inventoryBulkOps).insert(inventories.capture());
+        assertThat(inventories.getValue()).extracting(Inventory::getStockQty).containsExactly(5, 0);
+        assertThat(inventories.getValue().get(0).getProductId()).isEqualTo(products.getValue().get(0).getProductId());
+
+        verify(productSearchIndex, times(2)).index(any(Product.class));
+        verify(productSuggestIndex).requestRebuild();
+    }
+
+    @Test
+    @DisplayName("Should parse quoted CSV fields and report SKUs that already exist")
+    @SuppressWarnings("unchecked")
+    void importProducts_Csv_ReportsExistingSkus() throws Exception {
+        String body = String.join("\n",
+                "sku,name,description,categoryId,price,active",
+                "CSV-1,\"Lamp, brass\",\"A \"\"classic\"\" lamp\",cat-1,25.50,false",
+                "CSV-2,Chair,,cat-1,80,true",
+                "CSV-3,Table,,cat-1,abc,true");
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+        when(productBulkOps.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(duplicate), null,
+                        new ServerAddress(), Set.of())));
+
+        ProductImportResponse response = productImportService.importProducts(stream(body), ProductImportService.Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ProductImportError::getLine).containsExactly(4L, 3L);
+        assertThat(response.getErrors().get(0).getMessage()).isEqualTo("Invalid price: 'abc'");
+        assertThat(response.getErrors().get(1).getErrorCode()).isEqualTo("PRODUCT_SKU_CONFLICT");
+
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        verify(productBulkOps).insert(products.capture());
+        Product lamp = products.getValue().get(0);
+        assertThat(lamp.getName()).isEqualTo("Lamp, brass");
+        assertThat(lamp.getDescription()).isEqualTo("A \"classic\" lamp");
+        assertThat(lamp.isActive()).isFalse();
+
+        ArgumentCaptor<List<Inventory>> inventories = ArgumentCaptor.forClass(List.class);
+        verify(inventoryBulkOps).insert(inventories.capture());
+        assertThat(inventories.getValue()).extracting(Inventory::getProductId).containsExactly(lamp.getProductId());
+    }
+
+    @Test
+    @DisplayName("Should write large imports in fixed-size chunks")
+    void importProducts_WritesInChunks() throws Exception {
+        String body = IntStream.range(0, ProductImportService.CHUNK_SIZE * 2 + 1)
+                .mapToObj(i -> "{\"sku\":\"BULK-" + i + "\",\"name\":\"Item " + i + "\",\"categoryId\":\"cat-1\",\"price\":1}")
+                .collect(Collectors.joining("\n"));
+
+        ProductImportResponse response = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(ProductImportService.CHUNK_SIZE * 2 + 1);
+        verify(productBulkOps, times(3)).execute();
+        verify(inventoryBulkOps, times(3)).execute();
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV import whose header lacks required columns")
+    void importProducts_CsvMissingColumns_ThrowsBusinessException() {
+        assertThatThrownBy(() -> productImportService.importProducts(stream("sku,name\nA,B"), ProductImportService.Format.CSV))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("categoryId, price");
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Product.class));
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,30 +1,60 @@
 package com.productservice.service;
 
+import com.productservice.cache.ProductCache;
 import com.productservice.dto.request.CreateProductRequest;
 import com.productservice.dto.request.UpdateProductRequest;
+import com.productservice.dto.response.CursorPageResponse;
+import com.productservice.dto.response.ProductBatchResponse;
 import com.productservice.dto.response.ProductResponse;
 import com.productservice.entity.Inventory;
 import com.productservice.entity.Product;
+import com.productservice.exception.BusinessException;
 import com.productservice.exception.ConflictException;
+import com.productservice.exception.ErrorCode;
 import com.productservice.exception.ResourceNotFoundException;
 import com.productservice.repository.InventoryRepository;
+import com.productservice.repository.ProductFilter;
 import com.productservice.repository.ProductRepository;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +66,18 @@ class ProductServiceTest {
     @Mock
     private InventoryRepository inventoryRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private ProductService productService;
 
@@ -168,6 +210,7 @@ class ProductServiceTest {
     @DisplayName("Should get product by SKU successfully")
     void getProductBySku_Success() {
         when(productRepository.findBySku(testProduct.getSku())).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByProductId(testProduct.getProductId())).thenReturn(Optional.of(testProduct));
 
         ProductResponse response = productService.getProductBySku(testProduct.getSku());
 
@@ -195,4 +238,243 @@ class ProductServiceTest {
         verify(productRepository).findByProductId(testProduct.getProductId());
         verify(productRepository).save(any(Product.class));
     }
+
+    @Test
+    @DisplayName("Should return batch products in request order with missing IDs")
+    void getProductsByIds_ReturnsRequestOrderAndMissingIds() {
+        Product otherProduct = Product.builder()
+                .productId("other-id")
+                .sku("TEST-SKU-002")
+                .name("Other Product")
+                .price(new BigDecimal("5.00"))
+                .active(true)
+                .build();
+        when(productRepository.findByProductIdIn(anyCollection()))
+                .thenReturn(List.of(testProduct, otherProduct));
+
+        ProductBatchResponse response = productService.getProductsByIds(
+                List.of("other-id", "missing-id", testProduct.getProductId(), "other-id"));
+
+        assertThat(response.getProducts()).extracting(ProductResponse::getProductId)
+                .containsExactly("other-id", testProduct.getProductId());
+        assertThat(response.getMissingIds()).containsExactly("missing-id");
+
+        verify(productRepository, times(1)).findByProductIdIn(argThat((Collection<String> ids) -> ids.size() == 3));
+    }
+
+    @Test
+    @DisplayName("Should reject batch lookups above the size limit")
+    void getProductsByIds_TooMany_ThrowsBusinessException() {
+        List<String> ids = IntStream.rangeClosed(0, ProductService.MAX_BATCH_SIZE)
+                .mapToObj(i -> "id-" + i)
+                .toList();
+
+        assertThatThrownBy(() -> productService.getProductsByIds(ids))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.BATCH_TOO_LARGE);
+
+        verify(productRepository, never()).findByProductIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated ID and SKU lookups from the cache")
+    void getProductById_Cached_SkipsRepository() {
+        when(productRepository.findByProductId(testProduct.getProductId())).thenReturn(Optional.of(testProduct));
+
+        productService.getProductById(testProduct.getProductId());
+        ProductResponse byId = productService.getProductById(testProduct.getProductId());
+        ProductResponse bySku = productService.getProductBySku(testProduct.getSku());
+
+        assertThat(byId.getProductId()).isEqualTo(testProduct.getProductId());
+        assertThat(bySku.getProductId()).isEqualTo(testProduct.getProductId());
+        verify(productRepository, times(1)).findByProductId(testProduct.getProductId());
+        verify(productRepository, never()).findBySku(any());
+    }
+
+    @Test
+    @DisplayName("Should not cache a read that raced with an update")
+    void getProductById_ReadRacingUpdate_DoesNotCacheStaleProduct() throws Exception {
+        Product stale = Product.builder()
+                .id(testProduct.getId())
+                .productId(testProduct.getProductId())
+                .sku(testProduct.getSku())
+                .name(testProduct.getName())
+                .categoryId(testProduct.getCategoryId())
+                .price(testProduct.getPrice())
+                .currency(testProduct.getCurrency())
+                .active(true)
+                .build();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findByProductId(testProduct.getProductId()))
+                .thenAnswer(invocation -> {
+                    reading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CompletableFuture<ProductResponse> read = CompletableFuture.supplyAsync(() ->
+                productService.getProductById(testProduct.getProductId()));
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ProductResponse> update = CompletableFuture.supplyAsync(() ->
+                productService.updateProduct(testProduct.getProductId(), updateRequest));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(read.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Test Product");
+        assertThat(update.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Updated Product");
+        assertThat(productService.getProductById(testProduct.getProductId()).getName()).isEqualTo("Updated Product");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached product on update")
+    void updateProduct_InvalidatesCache() {
+        when(productRepository.findByProductId(testProduct.getProductId())).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.getProductById(testProduct.getProductId());
+        productService.updateProduct(testProduct.getProductId(), updateRequest);
+        ProductResponse response = productService.getProductById(testProduct.getProductId());
+
+        assertThat(response.getName()).isEqualTo("Updated Product");
+        verify(productCache).invalidate(testProduct.getProductId());
+    }
+
+    @Test
+    @DisplayName("Should return a cursor page without counting and continue after the last row")
+    void listProductsAfter_ReturnsNextCursorAndSeeksPastIt() {
+        Product first = cursorProduct("000000000000000000000001", Instant.ofEpochMilli(1_000));
+        Product second = cursorProduct("000000000000000000000002", Instant.ofEpochMilli(2_000));
+        Product third = cursorProduct("000000000000000000000003", Instant.ofEpochMilli(3_000));
+        when(productRepository.findByFilterAfter(any(ProductFilter.class), any(), any(Sort.class), eq(3)))
+                .thenReturn(List.of(first, second, third))
+                .thenReturn(List.of(third));
+
+        CursorPageResponse<ProductResponse> page1 = productService.listProductsAfter(
+                "", 2, null, null, null, true, null, null, null);
+
+        assertThat(page1.getContent()).hasSize(2);
+        assertThat(page1.isHasNext()).isTrue();
+        assertThat(page1.getNextCursor()).isNotBlank();
+
+        CursorPageResponse<ProductResponse> page2 = productService.listProductsAfter(
+                page1.getNextCursor(), 2, null, null, null, true, null, null, null);
+
+        assertThat(page2.getContent()).hasSize(1);
+        assertThat(page2.isHasNext()).isFalse();
+        assertThat(page2.getNextCursor()).isNull();
+
+        ArgumentCaptor<Criteria> keysetCaptor = ArgumentCaptor.forClass(Criteria.class);
+        verify(productRepository, times(2)).findByFilterAfter(any(ProductFilter.class), keysetCaptor.capture(),
+                eq(Sort.by(Sort.Direction.ASC, "createdAt", "id")), eq(3));
+        assertThat(keysetCaptor.getAllValues().get(0)).isNull();
+        assertThat(keysetCaptor.getAllValues().get(1).getCriteriaObject().toString())
+                .contains("$or").contains("createdAt");
+        verify(productRepository, never()).findByFilter(any(ProductFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should pass every present filter, including the price range, to the filter query")
+    void listProducts_CombinesAllFilters() {
+        when(productRepository.findByFilter(any(ProductFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testProduct), PageRequest.of(0, 10), 1));
+
+        productService.listProducts(0, 10, "price", "asc", "cat-123", true, "test",
+                new BigDecimal("10.00"), new BigDecimal("100.00"));
+
+        ArgumentCaptor<ProductFilter> filterCaptor = ArgumentCaptor.forClass(ProductFilter.class);
+        verify(productRepository).findByFilter(filterCaptor.capture(), any(Pageable.class));
+        ProductFilter filter = filterCaptor.getValue();
+        assertThat(filter.getCategoryId()).isEqualTo("cat-123");
+        assertThat(filter.getActive()).isTrue();
+        assertThat(filter.getMinPrice()).isEqualByComparingTo("10.00");
+        assertThat(filter.getMaxPrice()).isEqualByComparingTo("100.00");
+        assertThat(filter.getText()).isEqualTo("test");
+        assertThat(filter.toCriteria()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should serve text queries from the search index once it is built, ranked by relevance")
+    void listProducts_TextQuery_UsesSearchIndexWhenReady() {
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search(any(ProductFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testProduct), PageRequest.of(0, 10), 1));
+
+        productService.listProducts(0, 10, null, null, null, true, "test", null, null);
+
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(productSearchIndex).search(any(ProductFilter.class), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue().getSort().isUnsorted()).isTrue();
+        verify(productRepository, never()).findByFilter(any(ProductFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should answer suggestions from the suggest index and reject out-of-range limits")
+    void suggestProducts_DelegatesToIndex() {
+        productService.suggestProducts(" wire ", 5);
+        verify(productSuggestIndex).suggest("wire", 5);
+
+        assertThat(productService.suggestProducts("  ", 5)).isEmpty();
+        assertThatThrownBy(() -> productService.suggestProducts("wire", ProductService.MAX_SUGGEST_LIMIT + 1))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.VALIDATION_ERROR);
+        verifyNoMoreInteractions(productSuggestIndex);
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON document per line for every matching product")
+    void exportProducts_WritesNdjson() throws Exception {
+        Product second = Product.builder()
+                .productId("second-id")
+                .sku("TEST-SKU-002")
+                .name("Second Product")
+                .price(new BigDecimal("5.00"))
+                .active(true)
+                .build();
+        when(productRepository.streamByFilter(any(ProductFilter.class))).thenReturn(Stream.of(testProduct, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = productService.exportProducts("cat-123", true, null, null, null, out);
+
+        assertThat(count).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("productId").asText()).isEqualTo(testProduct.getProductId());
+        assertThat(first.get("price").decimalValue()).isEqualByComparingTo("99.99");
+        assertThat(objectMapper.readTree(lines[1]).get("sku").asText()).isEqualTo("TEST-SKU-002");
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+
+        ArgumentCaptor<ProductFilter> filterCaptor = ArgumentCaptor.forClass(ProductFilter.class);
+        verify(productRepository).streamByFilter(filterCaptor.capture());
+        assertThat(filterCaptor.getValue().getCategoryId()).isEqualTo("cat-123");
+        assertThat(filterCaptor.getValue().getActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void listProductsAfter_InvalidCursor_ThrowsBusinessException() {
+        assertThatThrownBy(() -> productService.listProductsAfter("not-a-cursor", 10, null, null, null, null, null, null, null))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+
+        verify(productRepository, never()).findByFilterAfter(any(), any(), any(), anyInt());
+    }
+
+    private Product cursorProduct(String id, Instant createdAt) {
+        return Product.builder()
+                .id(id)
+                .productId(UUID.randomUUID().toString())
+                .sku("SKU-" + id)
+                .name("Cursor Product")
+                .price(new BigDecimal("10.00"))
+                .active(true)
+                .createdAt(createdAt)
+                .build();
+    }
 }
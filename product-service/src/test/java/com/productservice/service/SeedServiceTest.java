@@ -0,0 +1,136 @@
+package com.productservice.service;
+
+import com.productservice.cache.ProductCache;
+import com.productservice.entity.Category;
+import com.productservice.entity.Inventory;
+import com.productservice.entity.Product;
+import com.productservice.entity.SeedRun;
+import com.productservice.repository.CategoryRepository;
+import com.productservice.repository.InventoryRepository;
+import com.productservice.repository.ProductRepository;
+import com.productservice.repository.SeedRunRepository;
+import com.productservice.search.ProductSearchIndex;
+import com.productservice.search.ProductSuggestIndex;
+import com.productservice.seed.DataGenerator;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeedServiceTest {
+
+    @Spy
+    private DataGenerator dataGenerator = new DataGenerator();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoConverter mongoConverter;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private SeedRunRepository seedRunRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @InjectMocks
+    private SeedService seedService;
+
+    private final Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seedService, "chunkSize", 100);
+        ReflectionTestUtils.setField(seedService, "writerThreads", 4);
+        lenient().when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulkOperations);
+        lenient().when(mongoTemplate.getConverter()).thenReturn(mongoConverter);
+        lenient().when(bulkOperations.execute()).thenAnswer(invocation -> {
+            writerThreads.add(Thread.currentThread().getName());
+            return null;
+        });
+        when(seedRunRepository.save(any(SeedRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should plain-insert every generated document from parallel writers on reset")
+    void seed_WithReset_InsertsChunksInParallel() {
+        SeedRun run = seedService.seed(1050, 42L, true);
+
+        assertThat(run.getStatus()).isEqualTo("SUCCESS");
+        assertThat(run.getDocsPerSecond()).isPositive();
+        verify(mongoTemplate).remove(any(Query.class), eq(Product.class));
+        verify(mongoConverter, times(2100)).write(any(), any(Document.class));
+        verify(bulkOperations, times(2100)).insert(any(Document.class));
+        verify(bulkOperations, times(DataGenerator.getCategoryCount())).upsert(any(Query.class), any(Update.class));
+        // One category bulk plus a product and an inventory bulk for each of the 11 chunks
+        verify(bulkOperations, times(23)).execute();
+        assertThat(writerThreads).anyMatch(name -> name.startsWith("seed-writer-"));
+        verify(productSearchIndex).rebuild();
+        verify(productSuggestIndex).requestRebuild();
+    }
+
+    @Test
+    @DisplayName("Should upsert by key when seeding without reset into empty collections")
+    void seed_WithoutReset_Upserts() {
+        SeedRun run = seedService.seed(250, 7L, false);
+
+        assertThat(run.getStatus()).isEqualTo("SUCCESS");
+        verify(bulkOperations, never()).insert(any(Document.class));
+        verify(bulkOperations, times(DataGenerator.getCategoryCount() + 500)).upsert(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    @DisplayName("Should stop generating and report FAILED when a writer fails")
+    void seed_WriterFailure_ReturnsFailedRun() {
+        when(bulkOperations.execute())
+                .thenReturn(null)
+                .thenThrow(new DataAccessResourceFailureException("Connection reset"))
+                .thenReturn(null);
+
+        SeedRun run = seedService.seed(5000, 42L, true);
+
+        assertThat(run.getStatus()).isEqualTo("FAILED");
+        assertThat(run.getDocsPerSecond()).isNull();
+        verify(productCache, atLeastOnce()).invalidateAll();
+    }
+}